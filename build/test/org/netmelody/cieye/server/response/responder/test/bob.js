@@ -0,0 +1 @@
+//hi
\ No newline at end of file
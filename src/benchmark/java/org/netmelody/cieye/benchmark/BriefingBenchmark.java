@@ -0,0 +1,87 @@
+package org.netmelody.cieye.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.netmelody.cieye.core.domain.CiServerType;
+import org.netmelody.cieye.core.domain.Feature;
+import org.netmelody.cieye.core.domain.Status;
+import org.netmelody.cieye.core.domain.TargetDetail;
+import org.netmelody.cieye.core.domain.TargetDigest;
+import org.netmelody.cieye.core.domain.TargetDigestGroup;
+import org.netmelody.cieye.core.domain.TargetId;
+import org.netmelody.cieye.core.observation.CiSpy;
+import org.netmelody.cieye.server.TargetGroupBriefing;
+import org.netmelody.cieye.server.observation.PollingScheduler;
+import org.netmelody.cieye.server.observation.PollingSpyHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.common.collect.Lists;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BriefingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int targets;
+
+    private final Feature feature = new Feature("benchmark", "http://ci.example.com", new CiServerType("DEMO"));
+    private PollingScheduler scheduler;
+    private ExecutorService statusFetchers;
+    private PollingSpyHandler handler;
+
+    @Setup
+    public void startPolling() {
+        scheduler = new PollingScheduler(1);
+        statusFetchers = Executors.newFixedThreadPool(4);
+        handler = new PollingSpyHandler(new SteadySpy(targets), feature, scheduler, statusFetchers, 4);
+        handler.briefingOn(feature);
+    }
+
+    @TearDown
+    public void stopPolling() {
+        handler.endMission();
+        scheduler.shutdown();
+        statusFetchers.shutdownNow();
+    }
+
+    @Benchmark
+    public TargetGroupBriefing briefingOnAPolledFeature() {
+        return handler.briefingOn(feature);
+    }
+
+    private static final class SteadySpy implements CiSpy {
+        private final TargetDigestGroup digests;
+
+        public SteadySpy(int targets) {
+            final List<TargetDigest> digests = Lists.newArrayList();
+            for (int index = 0; index < targets; index++) {
+                digests.add(new TargetDigest("target" + index, "http://ci.example.com/job/target" + index, "Target " + index, Status.UNKNOWN));
+            }
+            this.digests = new TargetDigestGroup(digests);
+        }
+
+        @Override public TargetDigestGroup targetsConstituting(Feature feature) {
+            return digests;
+        }
+
+        @Override public TargetDetail statusOf(TargetId target) {
+            return Fixtures.target(Integer.parseInt(target.id().substring("target".length())));
+        }
+
+        @Override public boolean takeNoteOf(TargetId target, String note) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.netmelody.cieye.benchmark;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.netmelody.cieye.core.domain.CiServerType;
+import org.netmelody.cieye.core.observation.CodeBook;
+import org.netmelody.cieye.spies.jenkins.JenkinsObservationAgency;
+import org.netmelody.cieye.spies.jenkins.jsondomain.ViewDetail;
+import org.netmelody.cieye.spies.teamcity.TeamCityObservationAgency;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeStatuses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecodingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int targets;
+
+    private CodeBook jenkinsCodeBook;
+    private CodeBook teamCityCodeBook;
+    private Gson jenkinsDecoder;
+    private Gson teamCityDecoder;
+    private String jenkinsView;
+    private String teamCityStatuses;
+
+    @Setup
+    public void recordPayloads() throws Exception {
+        jenkinsCodeBook = Fixtures.codeBookOf(new JenkinsObservationAgency(), new CiServerType("JENKINS"));
+        teamCityCodeBook = Fixtures.codeBookOf(new TeamCityObservationAgency(), new CiServerType("TEAMCITY"));
+        jenkinsDecoder = jenkinsCodeBook.decoder();
+        teamCityDecoder = teamCityCodeBook.decoder();
+        jenkinsView = Fixtures.jenkinsView(targets);
+        teamCityStatuses = Fixtures.teamCityBuildTypeStatuses(targets);
+    }
+
+    @Benchmark
+    public Gson buildJenkinsDecoder() {
+        return jenkinsCodeBook.decoder();
+    }
+
+    @Benchmark
+    public ViewDetail parseJenkinsView() {
+        return jenkinsDecoder.fromJson(readerOf(jenkinsCodeBook, jenkinsView), ViewDetail.class);
+    }
+
+    @Benchmark
+    public BuildTypeStatuses parseTeamCityBuildTypeStatuses() {
+        return teamCityDecoder.fromJson(readerOf(teamCityCodeBook, teamCityStatuses), BuildTypeStatuses.class);
+    }
+
+    private static JsonReader readerOf(CodeBook codeBook, String payload) {
+        final Reader content = codeBook.streamingContentMunger().apply(new StringReader(payload));
+        return new JsonReader(content);
+    }
+}
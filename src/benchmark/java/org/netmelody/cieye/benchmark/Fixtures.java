@@ -0,0 +1,150 @@
+package org.netmelody.cieye.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import org.netmelody.cieye.core.domain.CiServerType;
+import org.netmelody.cieye.core.domain.Feature;
+import org.netmelody.cieye.core.domain.LandscapeObservation;
+import org.netmelody.cieye.core.domain.Percentage;
+import org.netmelody.cieye.core.domain.RunningBuild;
+import org.netmelody.cieye.core.domain.Sponsor;
+import org.netmelody.cieye.core.domain.Status;
+import org.netmelody.cieye.core.domain.TargetDetail;
+import org.netmelody.cieye.core.domain.TargetDetailGroup;
+import org.netmelody.cieye.core.observation.CodeBook;
+import org.netmelody.cieye.core.observation.CommunicationNetwork;
+import org.netmelody.cieye.core.observation.Contact;
+import org.netmelody.cieye.core.observation.KnownOffendersDirectory;
+import org.netmelody.cieye.core.observation.ObservationAgency;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+import com.google.gson.JsonElement;
+
+public final class Fixtures {
+
+    private static final Status[] STATUSES = { Status.GREEN, Status.GREEN, Status.GREEN, Status.BROKEN, Status.UNDER_INVESTIGATION };
+
+    private Fixtures() { }
+
+    public static String sponsorName(int index) {
+        return "sponsor" + index;
+    }
+
+    public static String commitMessage(int sponsors, int seed) {
+        return sponsorName(seed % sponsors) + ": fix flaky timeout in the landscape poller, paired with "
+             + sponsorName((seed * 7 + 3) % sponsors) + " (build #" + seed + ")";
+    }
+
+    public static File picturesFile(int sponsors) throws IOException {
+        final List<String> lines = Lists.newArrayList();
+        for (int index = 0; index < sponsors; index++) {
+            lines.add("[" + sponsorName(index) + ".png]");
+            lines.add("Sponsor Number " + index);
+            lines.add(sponsorName(index));
+            lines.add(sponsorName(index) + "@example.com");
+            lines.add("");
+        }
+        final File file = File.createTempFile("cieye-benchmark-pictures", ".txt");
+        file.deleteOnExit();
+        Files.write(Joiner.on('\n').join(lines), file, Charsets.UTF_8);
+        return file;
+    }
+
+    public static TargetDetail target(int index) {
+        final Status status = STATUSES[index % STATUSES.length];
+        final List<RunningBuild> builds = (index % 4 == 0)
+                ? ImmutableList.of(new RunningBuild(Percentage.percentageOf(index % 100), status))
+                : ImmutableList.<RunningBuild>of();
+        final Set<Sponsor> sponsors = ImmutableSet.of(new Sponsor(sponsorName(index), sponsorName(index) + ".png"),
+                                                      new Sponsor(sponsorName(index + 1), sponsorName(index + 1) + ".png"));
+        return new TargetDetail("target" + index, "http://ci.example.com/job/target" + index, "Target " + index,
+                                status, 1435050888000L + index, builds, sponsors);
+    }
+
+    public static LandscapeObservation landscape(int targets) {
+        final List<TargetDetail> details = Lists.newArrayList();
+        for (int index = 0; index < targets; index++) {
+            details.add(target(index));
+        }
+        return new LandscapeObservation(TargetDetailGroup.of(details));
+    }
+
+    public static String jenkinsView(int jobs) throws IOException {
+        final String job = resource("jenkins_view_job.json");
+        final List<String> payloads = Lists.newArrayList();
+        for (int index = 0; index < jobs; index++) {
+            final boolean broken = STATUSES[index % STATUSES.length] != Status.GREEN;
+            payloads.add(String.format(job, "job" + index, broken ? "red" : "blue", 1000 + index,
+                                       broken ? "FAILURE" : "SUCCESS", index % 8, sponsorName(index), sponsorName(index + 1)));
+        }
+        return "{ \"name\" : \"All\", \"url\" : \"http://jenkins.example.com/\", \"jobs\" : [ "
+             + Joiner.on(", ").join(payloads) + " ] }";
+    }
+
+    public static String teamCityBuildTypeStatuses(int buildTypes) throws IOException {
+        final String buildType = resource("teamcity_build_type_status.json");
+        final List<String> payloads = Lists.newArrayList();
+        for (int index = 0; index < buildTypes; index++) {
+            final boolean broken = STATUSES[index % STATUSES.length] != Status.GREEN;
+            payloads.add(String.format(buildType, "bt" + index, broken ? "TAKEN" : "NONE", 1000 + index,
+                                       broken ? "FAILURE" : "SUCCESS", sponsorName(index)));
+        }
+        return "{ \"@count\" : \"" + buildTypes + "\", \"buildType\" : [ " + Joiner.on(", ").join(payloads) + " ] }";
+    }
+
+    public static CodeBook codeBookOf(ObservationAgency agency, CiServerType type) {
+        final CodeBookInterceptor interceptor = new CodeBookInterceptor();
+        agency.provideSpyFor(new Feature("benchmark", "http://ci.example.com", type), interceptor, new NobodyKnown());
+        return interceptor.codeBook;
+    }
+
+    private static String resource(String name) throws IOException {
+        return Resources.toString(Resources.getResource(Fixtures.class, name), Charsets.UTF_8);
+    }
+
+    private static final class CodeBookInterceptor implements CommunicationNetwork {
+        private CodeBook codeBook;
+
+        @Override public Contact makeContact(CodeBook codeBook) {
+            this.codeBook = codeBook;
+            return new SilentContact();
+        }
+    }
+
+    private static final class SilentContact implements Contact {
+        @Override public <T> T makeJsonRestCall(String url, Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public JsonElement makeJsonRestCall(String url) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public boolean privileged() {
+            return false;
+        }
+
+        @Override public void doPost(String url) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public void doPut(String url, String content) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class NobodyKnown implements KnownOffendersDirectory {
+        @Override public Set<Sponsor> search(String crimeScene) {
+            return ImmutableSet.of();
+        }
+    }
+}
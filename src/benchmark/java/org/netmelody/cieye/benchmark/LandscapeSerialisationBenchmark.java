@@ -0,0 +1,36 @@
+package org.netmelody.cieye.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.netmelody.cieye.core.domain.LandscapeObservation;
+import org.netmelody.cieye.server.response.JsonTranslator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LandscapeSerialisationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int targets;
+
+    private final JsonTranslator translator = new JsonTranslator();
+    private LandscapeObservation observation;
+
+    @Setup
+    public void observeLandscape() {
+        observation = Fixtures.landscape(targets);
+    }
+
+    @Benchmark
+    public String landscapeToJson() {
+        return translator.toJson(observation);
+    }
+}
@@ -0,0 +1,46 @@
+package org.netmelody.cieye.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.netmelody.cieye.core.domain.Sponsor;
+import org.netmelody.cieye.server.configuration.RecordedKnownOffenders;
+import org.netmelody.cieye.server.configuration.SettingsFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SponsorSearchBenchmark {
+
+    @Param({"20", "200", "2000"})
+    public int sponsors;
+
+    private RecordedKnownOffenders offenders;
+    private String repeatedMessage;
+    private int seed;
+
+    @Setup
+    public void recordOffenders() throws Exception {
+        offenders = new RecordedKnownOffenders(new SettingsFile(Fixtures.picturesFile(sponsors)));
+        repeatedMessage = Fixtures.commitMessage(sponsors, 0);
+        offenders.search(repeatedMessage);
+    }
+
+    @Benchmark
+    public Set<Sponsor> searchRepeatedCommitMessage() {
+        return offenders.search(repeatedMessage);
+    }
+
+    @Benchmark
+    public Set<Sponsor> searchNovelCommitMessage() {
+        return offenders.search(Fixtures.commitMessage(sponsors, ++seed));
+    }
+}
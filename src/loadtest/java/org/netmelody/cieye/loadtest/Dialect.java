@@ -0,0 +1,14 @@
+package org.netmelody.cieye.loadtest;
+
+import java.util.Map;
+
+public interface Dialect {
+
+    String serverType();
+
+    String basePath();
+
+    String targetIdOf(SimulatedTarget target, String endpoint);
+
+    Reply replyTo(String method, String path, Map<String, String> query, Simulation simulation, String endpoint);
+}
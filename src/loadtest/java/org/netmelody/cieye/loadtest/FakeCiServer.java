@@ -0,0 +1,159 @@
+package org.netmelody.cieye.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.simpleframework.http.Request;
+import org.simpleframework.http.Response;
+import org.simpleframework.http.core.Container;
+import org.simpleframework.transport.connect.Connection;
+import org.simpleframework.transport.connect.SocketConnection;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public final class FakeCiServer {
+
+    private final Dialect dialect;
+    private final Simulation simulation;
+    private final long latencyMillis;
+    private final ScheduledExecutorService responders;
+    private final Connection connection;
+    private final String endpoint;
+
+    private final ConcurrentMap<String, AtomicLong> requestCounts = new MapMaker().makeMap();
+    private final AtomicLong cycles = new AtomicLong();
+    private final AtomicLong totalCycleMillis = new AtomicLong();
+    private final AtomicLong longestCycleMillis = new AtomicLong();
+    private final AtomicLong lastCycleStart = new AtomicLong();
+
+    public FakeCiServer(Dialect dialect, Simulation simulation, long latencyMillis, int responderThreads) {
+        this.dialect = dialect;
+        this.simulation = simulation;
+        this.latencyMillis = latencyMillis;
+        this.responders = Executors.newScheduledThreadPool(responderThreads,
+                new ThreadFactoryBuilder().setNameFormat("FakeCiServer-Responder-%d").setDaemon(true).build());
+        try {
+            this.connection = new SocketConnection(new Container() {
+                @Override public void handle(Request request, Response response) {
+                    respondLater(request, response);
+                }
+            });
+            final SocketAddress address = connection.connect(new InetSocketAddress("localhost", 0));
+            this.endpoint = "http://localhost:" + ((InetSocketAddress)address).getPort() + dialect.basePath();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Unable to start fake CI server", e);
+        }
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public Dialect dialect() {
+        return dialect;
+    }
+
+    public Map<String, Long> requestCounts() {
+        final ImmutableSortedMap.Builder<String, Long> result = ImmutableSortedMap.naturalOrder();
+        for (Map.Entry<String, AtomicLong> entry : requestCounts.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result.build();
+    }
+
+    public long totalRequests() {
+        long total = 0L;
+        for (AtomicLong count : requestCounts.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    public long completedCycles() {
+        return cycles.get();
+    }
+
+    public long meanCycleMillis() {
+        final long completed = cycles.get();
+        return (completed == 0L) ? 0L : totalCycleMillis.get() / completed;
+    }
+
+    public long longestCycleMillis() {
+        return longestCycleMillis.get();
+    }
+
+    public void close() {
+        try {
+            connection.close();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        finally {
+            responders.shutdownNow();
+        }
+    }
+
+    private void respondLater(final Request request, final Response response) {
+        responders.schedule(new Runnable() {
+            @Override public void run() {
+                respond(request, response);
+            }
+        }, latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void respond(Request request, Response response) {
+        final String path = request.getPath().getPath();
+        Reply reply = Reply.notFound();
+        if (path.startsWith(dialect.basePath())) {
+            reply = dialect.replyTo(request.getMethod(), path.substring(dialect.basePath().length()),
+                                    request.getQuery(), simulation, endpoint);
+        }
+        tally(reply);
+
+        try {
+            final byte[] body = reply.body().getBytes(Charsets.UTF_8);
+            response.setCode(reply.code());
+            response.set("Content-Type", "application/json;charset=UTF-8");
+            response.setDate("Date", System.currentTimeMillis());
+            response.setContentLength(body.length);
+            final OutputStream content = response.getOutputStream();
+            content.write(body);
+            content.close();
+        }
+        catch (IOException e) {
+            System.err.println("Failed to respond to " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void tally(Reply reply) {
+        requestCounts.putIfAbsent(reply.kind(), new AtomicLong());
+        requestCounts.get(reply.kind()).incrementAndGet();
+
+        if (reply.startsCycle()) {
+            final long now = System.currentTimeMillis();
+            final long previous = lastCycleStart.getAndSet(now);
+            if (previous > 0L) {
+                final long cycleMillis = now - previous;
+                cycles.incrementAndGet();
+                totalCycleMillis.addAndGet(cycleMillis);
+                long longest = longestCycleMillis.get();
+                while (cycleMillis > longest && !longestCycleMillis.compareAndSet(longest, cycleMillis)) {
+                    longest = longestCycleMillis.get();
+                }
+            }
+        }
+    }
+}
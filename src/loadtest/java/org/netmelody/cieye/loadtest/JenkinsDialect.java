@@ -0,0 +1,185 @@
+package org.netmelody.cieye.loadtest;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.netmelody.cieye.loadtest.SimulatedTarget.BuildRecord;
+import org.netmelody.cieye.loadtest.SimulatedTarget.Snapshot;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+public final class JenkinsDialect implements Dialect {
+
+    private static final String VIEW_NAME = "All";
+    private static final Pattern JOB_PATH = Pattern.compile("^/job/([^/]+)/api/json$");
+    private static final Pattern BUILD_PATH = Pattern.compile("^/job/([^/]+)/(\\d+)/api/json$");
+    private static final Pattern NOTE_PATH = Pattern.compile("^/job/([^/]+)/(\\d+)/submitDescription$");
+
+    @Override
+    public String serverType() {
+        return "JENKINS";
+    }
+
+    @Override
+    public String basePath() {
+        return "/jenkins";
+    }
+
+    @Override
+    public String targetIdOf(SimulatedTarget target, String endpoint) {
+        return jobUrl(endpoint, target.name());
+    }
+
+    @Override
+    public Reply replyTo(String method, String path, Map<String, String> query, Simulation simulation, String endpoint) {
+        if ("POST".equals(method)) {
+            return NOTE_PATH.matcher(path).matches() ? Reply.empty("note") : Reply.notFound();
+        }
+        if ("/api/json".equals(path)) {
+            return Reply.json("server", server(endpoint)).startingCycle();
+        }
+        if (("/view/" + VIEW_NAME + "/api/json").equals(path)) {
+            return Reply.json("view", view(simulation, endpoint));
+        }
+
+        final Matcher job = JOB_PATH.matcher(path);
+        if (job.matches()) {
+            final SimulatedTarget target = simulation.targetNamed(job.group(1));
+            return (null == target) ? Reply.notFound() : Reply.json("job", job(target.snapshot(), endpoint));
+        }
+
+        final Matcher build = BUILD_PATH.matcher(path);
+        if (build.matches()) {
+            final SimulatedTarget target = simulation.targetNamed(build.group(1));
+            if (null == target) {
+                return Reply.notFound();
+            }
+            final Snapshot snapshot = target.snapshot();
+            final int number = Integer.parseInt(build.group(2));
+            if (snapshot.running && number == snapshot.runningNumber()) {
+                return Reply.json("build", runningBuild(snapshot, endpoint));
+            }
+            final BuildRecord record = snapshot.build(number);
+            return (null == record) ? Reply.notFound() : Reply.json("build", build(snapshot.name, record, endpoint));
+        }
+        return Reply.notFound();
+    }
+
+    private static JsonObject server(String endpoint) {
+        final JsonObject view = new JsonObject();
+        view.addProperty("name", VIEW_NAME);
+        view.addProperty("url", endpoint + "/view/" + VIEW_NAME + "/");
+        final JsonArray views = new JsonArray();
+        views.add(view);
+
+        final JsonObject server = new JsonObject();
+        server.addProperty("mode", "NORMAL");
+        server.addProperty("nodeName", "");
+        server.add("views", views);
+        return server;
+    }
+
+    private static JsonObject view(Simulation simulation, String endpoint) {
+        final JsonArray jobs = new JsonArray();
+        for (SimulatedTarget target : simulation.targets()) {
+            final Snapshot snapshot = target.snapshot();
+            final JsonObject job = jobDigest(snapshot, endpoint);
+            job.add("lastBuild", snapshot.running ? runningBuild(snapshot, endpoint) : build(snapshot.name, snapshot.lastCompleted(), endpoint));
+            jobs.add(job);
+        }
+
+        final JsonObject view = new JsonObject();
+        view.addProperty("name", VIEW_NAME);
+        view.addProperty("url", endpoint + "/view/" + VIEW_NAME + "/");
+        view.add("jobs", jobs);
+        return view;
+    }
+
+    private static JsonObject job(Snapshot snapshot, String endpoint) {
+        final JsonObject job = jobDigest(snapshot, endpoint);
+        final JsonArray builds = new JsonArray();
+        if (snapshot.running) {
+            builds.add(buildReference(snapshot.name, snapshot.runningNumber(), endpoint));
+        }
+        for (BuildRecord record : snapshot.history) {
+            builds.add(buildReference(snapshot.name, record.number, endpoint));
+        }
+        job.add("builds", builds);
+        job.add("lastBuild", buildReference(snapshot.name, snapshot.running ? snapshot.runningNumber() : snapshot.lastCompleted().number, endpoint));
+        job.add("lastCompletedBuild", buildReference(snapshot.name, snapshot.lastCompleted().number, endpoint));
+        job.add("lastStableBuild", buildReference(snapshot.name, snapshot.lastStableNumber, endpoint));
+        job.add("lastSuccessfulBuild", buildReference(snapshot.name, snapshot.lastStableNumber, endpoint));
+        if (snapshot.lastFailedNumber >= 0) {
+            job.add("lastFailedBuild", buildReference(snapshot.name, snapshot.lastFailedNumber, endpoint));
+            job.add("lastUnsuccessfulBuild", buildReference(snapshot.name, snapshot.lastFailedNumber, endpoint));
+        }
+        job.addProperty("nextBuildNumber", snapshot.runningNumber() + (snapshot.running ? 1 : 0));
+        return job;
+    }
+
+    private static JsonObject jobDigest(Snapshot snapshot, String endpoint) {
+        final JsonObject job = new JsonObject();
+        job.addProperty("name", snapshot.name);
+        job.addProperty("url", jobUrl(endpoint, snapshot.name));
+        job.addProperty("color", (snapshot.lastCompleted().green ? "blue" : "red") + (snapshot.running ? "_anime" : ""));
+        return job;
+    }
+
+    private static JsonObject buildReference(String jobName, int number, String endpoint) {
+        final JsonObject build = new JsonObject();
+        build.addProperty("number", number);
+        build.addProperty("url", buildUrl(endpoint, jobName, number));
+        return build;
+    }
+
+    private static JsonObject build(String jobName, BuildRecord record, String endpoint) {
+        final JsonObject build = buildDetail(jobName, record.number, record.startedAt, record.duration, record.committer, endpoint);
+        build.addProperty("building", false);
+        build.addProperty("result", record.green ? "SUCCESS" : "FAILURE");
+        return build;
+    }
+
+    private static JsonObject runningBuild(Snapshot snapshot, String endpoint) {
+        final JsonObject build = buildDetail(snapshot.name, snapshot.runningNumber(), snapshot.runningStartedAt, 0L, snapshot.runningCommitter, endpoint);
+        build.addProperty("building", true);
+        return build;
+    }
+
+    private static JsonObject buildDetail(String jobName, int number, long startedAt, long duration, String committer, String endpoint) {
+        final JsonObject item = new JsonObject();
+        item.addProperty("msg", SimulatedTarget.commitMessage(committer, number));
+        item.addProperty("user", committer);
+        final JsonArray items = new JsonArray();
+        items.add(item);
+        final JsonObject changeSet = new JsonObject();
+        changeSet.addProperty("kind", "git");
+        changeSet.add("items", items);
+
+        final JsonObject culprit = new JsonObject();
+        culprit.addProperty("fullName", committer);
+        culprit.addProperty("absoluteUrl", endpoint + "/user/" + committer);
+        final JsonArray culprits = new JsonArray();
+        culprits.add(culprit);
+
+        final JsonObject build = buildReference(jobName, number, endpoint);
+        build.addProperty("fullDisplayName", jobName + " #" + number);
+        build.addProperty("id", Integer.toString(number));
+        build.addProperty("timestamp", startedAt);
+        build.addProperty("duration", duration);
+        build.addProperty("builtOn", "agent" + (number % 8));
+        build.add("actions", new JsonArray());
+        build.add("changeSet", changeSet);
+        build.add("culprits", culprits);
+        return build;
+    }
+
+    private static String jobUrl(String endpoint, String jobName) {
+        return endpoint + "/job/" + jobName + "/";
+    }
+
+    private static String buildUrl(String endpoint, String jobName, int number) {
+        return jobUrl(endpoint, jobName) + number + "/";
+    }
+}
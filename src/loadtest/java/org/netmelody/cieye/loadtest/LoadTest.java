@@ -0,0 +1,208 @@
+package org.netmelody.cieye.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.netmelody.cieye.server.CiEyeServer;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Closeables;
+import com.google.common.io.Files;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+public final class LoadTest {
+
+    private static final String LANDSCAPE_NAME = "LoadTest";
+
+    private final String serverType = System.getProperty("cieye.loadtest.server", "JENKINS");
+    private final int targets = Integer.getInteger("cieye.loadtest.targets", 1000);
+    private final long latencyMillis = Long.getLong("cieye.loadtest.latencyMillis", 50L);
+    private final double changesPerTargetPerMinute = Double.parseDouble(System.getProperty("cieye.loadtest.changesPerTargetPerMinute", "0.1"));
+    private final long durationMillis = Long.getLong("cieye.loadtest.durationSeconds", 120L) * 1000L;
+    private final long breakIntervalMillis = Long.getLong("cieye.loadtest.breakIntervalSeconds", 10L) * 1000L;
+    private final long detectionTimeoutMillis = Long.getLong("cieye.loadtest.detectionTimeoutSeconds", 360L) * 1000L;
+    private final long radiatorPollMillis = Long.getLong("cieye.loadtest.radiatorPollMillis", 250L);
+
+    private final List<Long> radiatorResponseMillis = Collections.synchronizedList(Lists.<Long>newArrayList());
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+        System.exit(0);
+    }
+
+    public void run() throws Exception {
+        final Dialect dialect = "TEAMCITY".equalsIgnoreCase(serverType) ? new TeamCityDialect() : new JenkinsDialect();
+        final Simulation simulation = new Simulation("TEAMCITY".equals(dialect.serverType()) ? "bt" : "job", targets, changesPerTargetPerMinute);
+        final FakeCiServer ciServer = new FakeCiServer(dialect, simulation, latencyMillis, 16);
+        simulation.start();
+
+        final String radiator = startCiEyeWatching(ciServer);
+        System.out.format("Simulating %d %s targets at %s (latency %dms, %.2f changes/target/minute)%n",
+                          targets, dialect.serverType(), ciServer.endpoint(), latencyMillis, changesPerTargetPerMinute);
+
+        final long warmUpStart = System.currentTimeMillis();
+        final boolean warmedUp = awaitCompleteRadiator(radiator);
+        final long warmUpMillis = System.currentTimeMillis() - warmUpStart;
+        System.out.format("First complete radiator after %dms%s%n", warmUpMillis, warmedUp ? "" : " (timed out)");
+
+        radiatorResponseMillis.clear();
+        final Map<String, Long> requestsBefore = ciServer.requestCounts();
+        final long cyclesBefore = ciServer.completedCycles();
+        final List<Long> detectionMillis = Lists.newArrayList();
+        int undetected = 0;
+
+        final long measurementStart = System.currentTimeMillis();
+        while (System.currentTimeMillis() - measurementStart < durationMillis) {
+            final long breakStart = System.currentTimeMillis();
+            final SimulatedTarget broken = simulation.breakAGreenTarget();
+            if (null != broken) {
+                final long detected = awaitBreakOnRadiator(radiator, dialect.targetIdOf(broken, ciServer.endpoint()), breakStart);
+                if (detected < 0L) {
+                    undetected++;
+                }
+                else {
+                    detectionMillis.add(detected);
+                }
+            }
+            pause(breakIntervalMillis - (System.currentTimeMillis() - breakStart));
+        }
+        final long measuredMillis = System.currentTimeMillis() - measurementStart;
+
+        report(ciServer, requestsBefore, ciServer.completedCycles() - cyclesBefore, measuredMillis, detectionMillis, undetected);
+        simulation.stop();
+        ciServer.close();
+    }
+
+    private String startCiEyeWatching(FakeCiServer ciServer) throws IOException {
+        final File home = Files.createTempDir();
+        final File settings = new File(home, ".ci-eye");
+        settings.mkdirs();
+        Files.write("[" + LANDSCAPE_NAME + "]\n" + ciServer.dialect().serverType() + "|" + ciServer.endpoint() + "|\n",
+                    new File(settings, "views.txt"), Charsets.UTF_8);
+        System.setProperty("user.home", home.getAbsolutePath());
+
+        final int port = freePort();
+        new CiEyeServer(port).start();
+        System.out.println();
+        return "http://localhost:" + port + "/landscapes/" + LANDSCAPE_NAME + "/landscapeobservation.json";
+    }
+
+    private boolean awaitCompleteRadiator(String radiator) {
+        final long deadline = System.currentTimeMillis() + detectionTimeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            final Map<String, String> statuses = statusesOn(radiator);
+            if (statuses.size() >= targets && !statuses.containsValue("UNKNOWN")) {
+                return true;
+            }
+            pause(radiatorPollMillis);
+        }
+        return false;
+    }
+
+    private long awaitBreakOnRadiator(String radiator, String targetId, long breakStart) {
+        final long deadline = breakStart + detectionTimeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            final String status = statusesOn(radiator).get(targetId);
+            if ("BROKEN".equals(status) || "UNDER_INVESTIGATION".equals(status)) {
+                return System.currentTimeMillis() - breakStart;
+            }
+            pause(radiatorPollMillis);
+        }
+        return -1L;
+    }
+
+    private Map<String, String> statusesOn(String radiator) {
+        final Map<String, String> statuses = Maps.newHashMap();
+        final long start = System.currentTimeMillis();
+        InputStream content = null;
+        try {
+            final HttpURLConnection connection = (HttpURLConnection)new URL(radiator).openConnection();
+            content = connection.getInputStream();
+            final JsonElement observation = new JsonParser().parse(new InputStreamReader(content, Charsets.UTF_8));
+            for (JsonElement target : observation.getAsJsonObject().getAsJsonArray("targets")) {
+                final JsonObject fields = target.getAsJsonObject();
+                statuses.put(fields.get("id").getAsString(), fields.get("status").getAsString());
+            }
+        }
+        catch (Exception e) {
+            System.err.println("Failed to read radiator: " + e.getMessage());
+        }
+        finally {
+            Closeables.closeQuietly(content);
+        }
+        radiatorResponseMillis.add(System.currentTimeMillis() - start);
+        return statuses;
+    }
+
+    private void report(FakeCiServer ciServer, Map<String, Long> requestsBefore, long cycles, long measuredMillis,
+                        List<Long> detectionMillis, int undetected) {
+        final double seconds = measuredMillis / 1000.0;
+        long requests = 0L;
+        System.out.format("%nMeasured for %.1fs%n", seconds);
+        System.out.println("CI server requests:");
+        for (Map.Entry<String, Long> entry : ciServer.requestCounts().entrySet()) {
+            final Long before = requestsBefore.get(entry.getKey());
+            final long count = entry.getValue() - ((null == before) ? 0L : before);
+            requests += count;
+            System.out.format("  %-12s %8d  (%.1f/s)%n", entry.getKey(), count, count / seconds);
+        }
+        System.out.format("  %-12s %8d  (%.1f/s)%n", "total", requests, requests / seconds);
+        System.out.format("Polling cycles: %d, mean cycle %dms, longest cycle %dms (whole run)%n",
+                          cycles, ciServer.meanCycleMillis(), ciServer.longestCycleMillis());
+        System.out.format("Polling throughput: %.1f target observations/s%n", (cycles * (double)targets) / seconds);
+        System.out.println("Radiator response time: " + summarise(radiatorResponseMillis));
+        System.out.println("Break to radiator latency: " + summarise(detectionMillis)
+                           + ", undetected within " + detectionTimeoutMillis + "ms: " + undetected);
+    }
+
+    private static String summarise(List<Long> samples) {
+        final List<Long> sorted;
+        synchronized (samples) {
+            sorted = Lists.newArrayList(samples);
+        }
+        if (sorted.isEmpty()) {
+            return "no samples";
+        }
+        Collections.sort(sorted);
+        return String.format("n=%d min=%dms median=%dms p90=%dms max=%dms", sorted.size(), sorted.get(0),
+                             percentile(sorted, 50), percentile(sorted, 90), sorted.get(sorted.size() - 1));
+    }
+
+    private static long percentile(List<Long> sorted, int percent) {
+        return sorted.get(Math.min(sorted.size() - 1, (sorted.size() * percent) / 100));
+    }
+
+    private static int freePort() throws IOException {
+        final ServerSocket socket = new ServerSocket(0);
+        try {
+            return socket.getLocalPort();
+        }
+        finally {
+            socket.close();
+        }
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0L) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
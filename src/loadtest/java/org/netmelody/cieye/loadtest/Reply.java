@@ -0,0 +1,50 @@
+package org.netmelody.cieye.loadtest;
+
+import com.google.gson.JsonElement;
+
+public final class Reply {
+
+    private final String kind;
+    private final int code;
+    private final String body;
+    private final boolean startsCycle;
+
+    private Reply(String kind, int code, String body, boolean startsCycle) {
+        this.kind = kind;
+        this.code = code;
+        this.body = body;
+        this.startsCycle = startsCycle;
+    }
+
+    public static Reply json(String kind, JsonElement content) {
+        return new Reply(kind, 200, content.toString(), false);
+    }
+
+    public static Reply empty(String kind) {
+        return new Reply(kind, 200, "", false);
+    }
+
+    public static Reply notFound() {
+        return new Reply("unknown", 404, "", false);
+    }
+
+    public Reply startingCycle() {
+        return new Reply(kind, code, body, true);
+    }
+
+    public String kind() {
+        return kind;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public String body() {
+        return body;
+    }
+
+    public boolean startsCycle() {
+        return startsCycle;
+    }
+}
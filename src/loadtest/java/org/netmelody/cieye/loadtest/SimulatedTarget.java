@@ -0,0 +1,151 @@
+package org.netmelody.cieye.loadtest;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.ImmutableList;
+
+public final class SimulatedTarget {
+
+    private static final int HISTORY_LENGTH = 10;
+    private static final int PROGRESS_PER_TICK = 10;
+    private static final int COMMITTERS = 50;
+
+    private final int index;
+    private final String name;
+    private final LinkedList<BuildRecord> history = new LinkedList<BuildRecord>();
+
+    private boolean running;
+    private int progress;
+    private long runningStartedAt;
+    private String runningCommitter;
+    private int lastStableNumber;
+    private int lastFailedNumber = -1;
+
+    public SimulatedTarget(int index, String name, long now) {
+        this.index = index;
+        this.name = name;
+        this.lastStableNumber = 100;
+        this.history.addFirst(new BuildRecord(100, true, now - 600000L, 180000L, committer(index)));
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public synchronized void advance(long now, Random random, double changeProbability) {
+        if (running) {
+            progress += PROGRESS_PER_TICK;
+            if (progress >= 100) {
+                complete(random.nextInt(10) != 0, now);
+            }
+            return;
+        }
+        if (random.nextDouble() < changeProbability) {
+            running = true;
+            progress = 0;
+            runningStartedAt = now;
+            runningCommitter = committer(random.nextInt(COMMITTERS));
+        }
+    }
+
+    public synchronized boolean breakIfGreen(long now) {
+        if (running || !history.getFirst().green) {
+            return false;
+        }
+        runningStartedAt = now;
+        runningCommitter = committer(index);
+        complete(false, now);
+        return true;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    private void complete(boolean green, long now) {
+        final int number = history.getFirst().number + 1;
+        history.addFirst(new BuildRecord(number, green, runningStartedAt, now - runningStartedAt, runningCommitter));
+        if (history.size() > HISTORY_LENGTH) {
+            history.removeLast();
+        }
+        if (green) {
+            lastStableNumber = number;
+        }
+        else {
+            lastFailedNumber = number;
+        }
+        running = false;
+        progress = 0;
+    }
+
+    public static String commitMessage(String committer, int number) {
+        return committer + ": adjust build " + number + " configuration";
+    }
+
+    private static String committer(int seed) {
+        return "dev" + (seed % COMMITTERS);
+    }
+
+    public static final class Snapshot {
+        public final int index;
+        public final String name;
+        public final boolean running;
+        public final int progress;
+        public final long runningStartedAt;
+        public final String runningCommitter;
+        public final int lastStableNumber;
+        public final int lastFailedNumber;
+        public final List<BuildRecord> history;
+
+        private Snapshot(SimulatedTarget target) {
+            this.index = target.index;
+            this.name = target.name;
+            this.running = target.running;
+            this.progress = target.progress;
+            this.runningStartedAt = target.runningStartedAt;
+            this.runningCommitter = target.runningCommitter;
+            this.lastStableNumber = target.lastStableNumber;
+            this.lastFailedNumber = target.lastFailedNumber;
+            this.history = ImmutableList.copyOf(target.history);
+        }
+
+        public BuildRecord lastCompleted() {
+            return history.get(0);
+        }
+
+        public int runningNumber() {
+            return lastCompleted().number + 1;
+        }
+
+        public BuildRecord build(int number) {
+            for (BuildRecord build : history) {
+                if (build.number == number) {
+                    return build;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static final class BuildRecord {
+        public final int number;
+        public final boolean green;
+        public final long startedAt;
+        public final long duration;
+        public final String committer;
+
+        public BuildRecord(int number, boolean green, long startedAt, long duration, String committer) {
+            this.number = number;
+            this.green = green;
+            this.startedAt = startedAt;
+            this.duration = duration;
+            this.committer = committer;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.netmelody.cieye.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public final class Simulation {
+
+    private static final long TICK_MILLIS = 1000L;
+
+    private final List<SimulatedTarget> targets;
+    private final Map<String, SimulatedTarget> targetsByName;
+    private final double changeProbability;
+    private final Random random = new Random(42L);
+    private final ScheduledExecutorService ticker =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("Simulation-Ticker").setDaemon(true).build());
+
+    public Simulation(String namePrefix, int targetCount, double changesPerTargetPerMinute) {
+        final ImmutableList.Builder<SimulatedTarget> builder = ImmutableList.builder();
+        final ImmutableMap.Builder<String, SimulatedTarget> byName = ImmutableMap.builder();
+        final long now = System.currentTimeMillis();
+        for (int index = 0; index < targetCount; index++) {
+            final SimulatedTarget target = new SimulatedTarget(index, String.format("%s%04d", namePrefix, index), now);
+            builder.add(target);
+            byName.put(target.name(), target);
+        }
+        this.targets = builder.build();
+        this.targetsByName = byName.build();
+        this.changeProbability = changesPerTargetPerMinute * TICK_MILLIS / 60000.0;
+    }
+
+    public void start() {
+        ticker.scheduleWithFixedDelay(new Runnable() {
+            @Override public void run() {
+                final long now = System.currentTimeMillis();
+                synchronized (random) {
+                    for (SimulatedTarget target : targets) {
+                        target.advance(now, random, changeProbability);
+                    }
+                }
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public List<SimulatedTarget> targets() {
+        return targets;
+    }
+
+    public SimulatedTarget targetNamed(String name) {
+        return targetsByName.get(name);
+    }
+
+    public SimulatedTarget breakAGreenTarget() {
+        final long now = System.currentTimeMillis();
+        synchronized (random) {
+            for (int attempt = 0; attempt < targets.size(); attempt++) {
+                final SimulatedTarget target = targets.get(random.nextInt(targets.size()));
+                if (target.breakIfGreen(now)) {
+                    return target;
+                }
+            }
+        }
+        return null;
+    }
+
+    public void stop() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,193 @@
+package org.netmelody.cieye.loadtest;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.netmelody.cieye.loadtest.SimulatedTarget.BuildRecord;
+import org.netmelody.cieye.loadtest.SimulatedTarget.Snapshot;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+public final class TeamCityDialect implements Dialect {
+
+    private static final int BUILD_TYPES_PER_PROJECT = 50;
+    private static final int BUILD_ID_STRIDE = 100000;
+    private static final String REST_PATH = "/guestAuth/app/rest";
+    private static final Pattern PROJECT_LOCATOR = Pattern.compile("affectedProject:\\(id:project(\\d+)\\)");
+    private static final Pattern BUILD_LOCATOR = Pattern.compile("^build:\\(id:(\\d+)\\)$");
+
+    @Override
+    public String serverType() {
+        return "TEAMCITY";
+    }
+
+    @Override
+    public String basePath() {
+        return "/teamcity";
+    }
+
+    @Override
+    public String targetIdOf(SimulatedTarget target, String endpoint) {
+        return endpoint + buildTypeHref(target.name());
+    }
+
+    @Override
+    public Reply replyTo(String method, String path, Map<String, String> query, Simulation simulation, String endpoint) {
+        if (!path.startsWith(REST_PATH)) {
+            return Reply.notFound();
+        }
+        final String resource = path.substring(REST_PATH.length());
+        final String locator = query.get("locator");
+
+        if ("/buildTypes".equals(resource)) {
+            if (null == locator) {
+                return Reply.json("buildTypes", buildTypes(simulation, endpoint)).startingCycle();
+            }
+            final Matcher project = PROJECT_LOCATOR.matcher(locator);
+            return project.find() ? Reply.json("survey", survey(simulation, Integer.parseInt(project.group(1)), endpoint))
+                                  : Reply.notFound();
+        }
+
+        if (("/builds/".equals(resource) || "/builds".equals(resource)) && null != locator && locator.contains("running:true")) {
+            final Matcher project = PROJECT_LOCATOR.matcher(locator);
+            return project.find() ? Reply.json("running", runningBuilds(simulation, Integer.parseInt(project.group(1)), endpoint))
+                                  : Reply.notFound();
+        }
+
+        if ("/changes".equals(resource) && null != locator) {
+            final Matcher build = BUILD_LOCATOR.matcher(locator);
+            return build.matches() ? changes(simulation, Long.parseLong(build.group(1))) : Reply.notFound();
+        }
+        return Reply.notFound();
+    }
+
+    private static JsonObject buildTypes(Simulation simulation, String endpoint) {
+        final JsonArray buildTypes = new JsonArray();
+        for (SimulatedTarget target : simulation.targets()) {
+            final int project = target.index() / BUILD_TYPES_PER_PROJECT;
+            final JsonObject buildType = new JsonObject();
+            buildType.addProperty("id", target.name());
+            buildType.addProperty("name", target.name());
+            buildType.addProperty("href", buildTypeHref(target.name()));
+            buildType.addProperty("projectName", "Project " + project);
+            buildType.addProperty("projectId", "project" + project);
+            buildType.addProperty("webUrl", endpoint + "/viewType.html?buildTypeId=" + target.name());
+            buildTypes.add(buildType);
+        }
+
+        final JsonObject result = new JsonObject();
+        result.addProperty("count", simulation.targets().size());
+        result.add("buildType", buildTypes);
+        return result;
+    }
+
+    private static JsonObject survey(Simulation simulation, int project, String endpoint) {
+        final JsonArray statuses = new JsonArray();
+        for (SimulatedTarget target : simulation.targets()) {
+            if (target.index() / BUILD_TYPES_PER_PROJECT != project) {
+                continue;
+            }
+            final Snapshot snapshot = target.snapshot();
+            final JsonArray lastCompleted = new JsonArray();
+            lastCompleted.add(build(snapshot, snapshot.lastCompleted(), endpoint));
+            final JsonObject builds = new JsonObject();
+            builds.add("build", lastCompleted);
+            final JsonObject investigations = new JsonObject();
+            investigations.add("investigation", new JsonArray());
+
+            final JsonObject status = new JsonObject();
+            status.addProperty("id", snapshot.name);
+            status.addProperty("paused", false);
+            status.add("builds", builds);
+            status.add("investigations", investigations);
+            statuses.add(status);
+        }
+
+        final JsonObject result = new JsonObject();
+        result.add("buildType", statuses);
+        return result;
+    }
+
+    private static JsonObject runningBuilds(Simulation simulation, int project, String endpoint) {
+        final JsonArray running = new JsonArray();
+        for (SimulatedTarget target : simulation.targets()) {
+            if (target.index() / BUILD_TYPES_PER_PROJECT != project) {
+                continue;
+            }
+            final Snapshot snapshot = target.snapshot();
+            if (snapshot.running) {
+                final JsonObject build = buildDigest(snapshot, snapshot.runningNumber(), "SUCCESS", snapshot.runningStartedAt, endpoint);
+                build.addProperty("percentageComplete", snapshot.progress);
+                build.addProperty("branchName", "master");
+                running.add(build);
+            }
+        }
+
+        final JsonObject result = new JsonObject();
+        result.addProperty("count", running.size());
+        result.add("build", running);
+        return result;
+    }
+
+    private static Reply changes(Simulation simulation, long buildId) {
+        final SimulatedTarget target = simulation.targets().size() > buildId / BUILD_ID_STRIDE
+                                     ? simulation.targets().get((int)(buildId / BUILD_ID_STRIDE)) : null;
+        if (null == target) {
+            return Reply.notFound();
+        }
+        final Snapshot snapshot = target.snapshot();
+        final int number = (int)(buildId % BUILD_ID_STRIDE);
+        final BuildRecord record = snapshot.build(number);
+        final String committer = (null != record) ? record.committer
+                               : (snapshot.running && number == snapshot.runningNumber()) ? snapshot.runningCommitter : null;
+        if (null == committer) {
+            return Reply.notFound();
+        }
+
+        final JsonObject change = new JsonObject();
+        change.addProperty("id", buildId);
+        change.addProperty("version", Long.toHexString(buildId * 2654435761L));
+        change.addProperty("href", REST_PATH + "/changes/id:" + buildId);
+        change.addProperty("username", committer);
+        change.addProperty("comment", SimulatedTarget.commitMessage(committer, number));
+        final JsonArray changes = new JsonArray();
+        changes.add(change);
+
+        final JsonObject result = new JsonObject();
+        result.addProperty("count", 1);
+        result.add("change", changes);
+        return Reply.json("changes", result);
+    }
+
+    private static JsonObject build(Snapshot snapshot, BuildRecord record, String endpoint) {
+        final JsonObject build = buildDigest(snapshot, record.number, record.green ? "SUCCESS" : "FAILURE", record.startedAt, endpoint);
+        build.addProperty("branchName", "master");
+        return build;
+    }
+
+    private static JsonObject buildDigest(Snapshot snapshot, int number, String status, long startedAt, String endpoint) {
+        final long id = (long)snapshot.index * BUILD_ID_STRIDE + number;
+        final JsonObject changes = new JsonObject();
+        changes.addProperty("count", 1);
+        changes.addProperty("href", REST_PATH + "/changes?locator=build:(id:" + id + ")");
+
+        final JsonObject build = new JsonObject();
+        build.addProperty("id", id);
+        build.addProperty("number", Integer.toString(number));
+        build.addProperty("status", status);
+        build.addProperty("buildTypeId", snapshot.name);
+        build.addProperty("href", REST_PATH + "/builds/id:" + id);
+        build.addProperty("webUrl", endpoint + "/viewLog.html?buildId=" + id + "&buildTypeId=" + snapshot.name);
+        build.addProperty("startDate", new SimpleDateFormat("yyyyMMdd'T'HHmmssZ").format(new Date(startedAt)));
+        build.add("changes", changes);
+        return build;
+    }
+
+    private static String buildTypeHref(String buildTypeId) {
+        return REST_PATH + "/buildTypes/id:" + buildTypeId;
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.netmelody.cieye;
 
+import java.io.IOException;
+
 import org.netmelody.cieye.server.CiEyeServer;
 
 public final class CiEye {
@@ -32,6 +34,17 @@ public final class CiEye {
             port = 0;
         }
         
-        new CiEyeServer(port).start();
+        final CiEyeServer server = new CiEyeServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread("CiEyeShutdown") {
+            @Override public void run() {
+                try {
+                    server.stop();
+                }
+                catch (IOException e) {
+                    System.err.println("Failed to stop CI-Eye server cleanly: " + e.getMessage());
+                }
+            }
+        });
+        server.start();
     }
 }
\ No newline at end of file
@@ -39,6 +39,10 @@ public final class LandscapeObservation {
         return new ArrayList<TargetDetail>(targets);
     }
     
+    public boolean dohReported() {
+        return null != dohGroup;
+    }
+    
     public Set<Sponsor> dohGroup() {
         return (null == dohGroup) ? new HashSet<Sponsor>() : new HashSet<Sponsor>(dohGroup);
     }
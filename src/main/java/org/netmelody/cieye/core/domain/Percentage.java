@@ -35,4 +35,14 @@ public final class Percentage {
     public int value() {
         return value;
     }
+    
+    @Override
+    public boolean equals(Object obj) {
+        return (obj instanceof Percentage) && ((Percentage)obj).value == value;
+    }
+    
+    @Override
+    public int hashCode() {
+        return value;
+    }
 }
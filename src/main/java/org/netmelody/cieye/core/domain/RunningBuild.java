@@ -39,4 +39,14 @@ public final class RunningBuild {
     public RunningBuild withStatus(Status status) {
         return new RunningBuild(progress, status);
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        return (obj instanceof RunningBuild) && ((RunningBuild)obj).progress.equals(progress) && ((RunningBuild)obj).status.equals(status);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * progress.hashCode() + status.hashCode();
+    }
 }
@@ -7,7 +7,9 @@ import java.util.List;
 import java.util.Set;
 
 import com.google.common.base.Function;
+import com.google.common.base.Objects;
 
+import static com.google.common.base.Objects.equal;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Lists.newArrayList;
@@ -62,4 +64,20 @@ public final class TargetDetail extends Target {
     public TargetDetail withStatus(Status newStatus) {
         return new TargetDetail(id().id(), webUrl(), name(), newStatus, lastStartTime, builds, sponsors);
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof TargetDetail)) {
+            return false;
+        }
+        final TargetDetail other = (TargetDetail)obj;
+        return id().equals(other.id()) && equal(webUrl(), other.webUrl()) && equal(name(), other.name())
+            && status().equals(other.status()) && lastStartTime == other.lastStartTime
+            && builds.equals(other.builds) && sponsors.equals(other.sponsors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id(), status(), lastStartTime);
+    }
 }
\ No newline at end of file
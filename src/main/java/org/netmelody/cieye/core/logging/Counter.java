@@ -0,0 +1,20 @@
+package org.netmelody.cieye.core.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class Counter {
+
+    private final AtomicLong count = new AtomicLong();
+
+    public void increment() {
+        count.incrementAndGet();
+    }
+
+    public void add(long amount) {
+        count.addAndGet(amount);
+    }
+
+    public long count() {
+        return count.get();
+    }
+}
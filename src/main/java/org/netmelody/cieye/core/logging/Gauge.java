@@ -0,0 +1,6 @@
+package org.netmelody.cieye.core.logging;
+
+public interface Gauge {
+
+    long reading();
+}
@@ -0,0 +1,64 @@
+package org.netmelody.cieye.core.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class LatencyHistogram {
+
+    private static final long[] BUCKET_BOUNDS_MILLIS = { 1L, 2L, 5L, 10L, 25L, 50L, 100L, 250L, 500L,
+                                                         1000L, 2500L, 5000L, 10000L, 30000L, 60000L };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong maximumMillis = new AtomicLong();
+
+    public void record(long millis) {
+        final long duration = Math.max(0L, millis);
+        buckets.incrementAndGet(bucketOf(duration));
+        count.incrementAndGet();
+        totalMillis.addAndGet(duration);
+
+        long maximum = maximumMillis.get();
+        while (duration > maximum && !maximumMillis.compareAndSet(maximum, duration)) {
+            maximum = maximumMillis.get();
+        }
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long totalMillis() {
+        return totalMillis.get();
+    }
+
+    public long maximumMillis() {
+        return maximumMillis.get();
+    }
+
+    public int bucketCount() {
+        return buckets.length();
+    }
+
+    public long bucketBoundMillis(int bucket) {
+        return (bucket < BUCKET_BOUNDS_MILLIS.length) ? BUCKET_BOUNDS_MILLIS[bucket] : Long.MAX_VALUE;
+    }
+
+    public long cumulativeCountOf(int bucket) {
+        long result = 0L;
+        for (int index = 0; index <= bucket && index < buckets.length(); index++) {
+            result += buckets.get(index);
+        }
+        return result;
+    }
+
+    private static int bucketOf(long millis) {
+        for (int bucket = 0; bucket < BUCKET_BOUNDS_MILLIS.length; bucket++) {
+            if (millis <= BUCKET_BOUNDS_MILLIS[bucket]) {
+                return bucket;
+            }
+        }
+        return BUCKET_BOUNDS_MILLIS.length;
+    }
+}
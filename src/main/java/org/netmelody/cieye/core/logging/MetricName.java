@@ -0,0 +1,68 @@
+package org.netmelody.cieye.core.logging;
+
+import java.util.Map.Entry;
+import java.util.SortedMap;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Ordering;
+
+public final class MetricName implements Comparable<MetricName> {
+
+    private final String name;
+    private final ImmutableSortedMap<String, String> labels;
+
+    private MetricName(String name, ImmutableSortedMap<String, String> labels) {
+        this.name = name;
+        this.labels = labels;
+    }
+
+    public static MetricName of(String name, String... labelPairs) {
+        if (labelPairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be given as name/value pairs for metric " + name);
+        }
+        final ImmutableSortedMap.Builder<String, String> labels = ImmutableSortedMap.naturalOrder();
+        for (int index = 0; index < labelPairs.length; index += 2) {
+            labels.put(labelPairs[index], (null == labelPairs[index + 1]) ? "" : labelPairs[index + 1]);
+        }
+        return new MetricName(name, labels.build());
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public SortedMap<String, String> labels() {
+        return labels;
+    }
+
+    @Override
+    public int compareTo(MetricName other) {
+        return ComparisonChain.start()
+                              .compare(name, other.name)
+                              .compare(labels.entrySet(), other.labels.entrySet(), LABEL_ORDER)
+                              .result();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return (obj instanceof MetricName) && ((MetricName)obj).name.equals(name) && ((MetricName)obj).labels.equals(labels);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + labels.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return labels.isEmpty() ? name : name + "{" + Joiner.on(',').withKeyValueSeparator("=").join(labels) + "}";
+    }
+
+    private static final Ordering<Iterable<Entry<String, String>>> LABEL_ORDER = new Ordering<Entry<String, String>>() {
+        @Override public int compare(Entry<String, String> left, Entry<String, String> right) {
+            return ComparisonChain.start().compare(left.getKey(), right.getKey()).compare(left.getValue(), right.getValue()).result();
+        }
+    }.lexicographical();
+}
@@ -0,0 +1,12 @@
+package org.netmelody.cieye.core.logging;
+
+public final class Metrics {
+
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    private Metrics() { }
+
+    public static MetricsRegistry registry() {
+        return REGISTRY;
+    }
+}
@@ -0,0 +1,56 @@
+package org.netmelody.cieye.core.logging;
+
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.MapMaker;
+
+public final class MetricsRegistry {
+
+    private final ConcurrentMap<MetricName, Counter> counters = new MapMaker().makeMap();
+    private final ConcurrentMap<MetricName, LatencyHistogram> histograms = new MapMaker().makeMap();
+    private final ConcurrentMap<MetricName, Gauge> gauges = new MapMaker().makeMap();
+
+    public Counter counter(String name, String... labelPairs) {
+        final MetricName key = MetricName.of(name, labelPairs);
+        final Counter counter = counters.get(key);
+        if (null != counter) {
+            return counter;
+        }
+        final Counter candidate = new Counter();
+        final Counter existing = counters.putIfAbsent(key, candidate);
+        return (null == existing) ? candidate : existing;
+    }
+
+    public LatencyHistogram histogram(String name, String... labelPairs) {
+        final MetricName key = MetricName.of(name, labelPairs);
+        final LatencyHistogram histogram = histograms.get(key);
+        if (null != histogram) {
+            return histogram;
+        }
+        final LatencyHistogram candidate = new LatencyHistogram();
+        final LatencyHistogram existing = histograms.putIfAbsent(key, candidate);
+        return (null == existing) ? candidate : existing;
+    }
+
+    public void gauge(Gauge gauge, String name, String... labelPairs) {
+        gauges.put(MetricName.of(name, labelPairs), gauge);
+    }
+
+    public void forgetGauge(String name, String... labelPairs) {
+        gauges.remove(MetricName.of(name, labelPairs));
+    }
+
+    public SortedMap<MetricName, Counter> counters() {
+        return ImmutableSortedMap.copyOf(counters);
+    }
+
+    public SortedMap<MetricName, LatencyHistogram> histograms() {
+        return ImmutableSortedMap.copyOf(histograms);
+    }
+
+    public SortedMap<MetricName, Gauge> gauges() {
+        return ImmutableSortedMap.copyOf(gauges);
+    }
+}
@@ -0,0 +1,9 @@
+package org.netmelody.cieye.core.observation;
+
+public interface Archive {
+
+    String retrieve(String key);
+
+    void deposit(String key, String record);
+
+}
@@ -0,0 +1,10 @@
+package org.netmelody.cieye.core.observation;
+
+public final class Archives {
+
+    private Archives() { }
+
+    public static Archive archiveOf(CommunicationNetwork network) {
+        return (network instanceof Archivist) ? ((Archivist)network).archive() : new ForgetfulArchive();
+    }
+}
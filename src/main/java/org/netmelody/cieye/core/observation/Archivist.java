@@ -0,0 +1,6 @@
+package org.netmelody.cieye.core.observation;
+
+public interface Archivist {
+
+    Archive archive();
+}
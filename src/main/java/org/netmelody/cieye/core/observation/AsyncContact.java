@@ -0,0 +1,11 @@
+package org.netmelody.cieye.core.observation;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.JsonElement;
+
+public interface AsyncContact extends Contact {
+
+    <T> ListenableFuture<T> makeAsyncJsonRestCall(String url, Class<T> type);
+
+    ListenableFuture<JsonElement> makeAsyncJsonRestCall(String url);
+}
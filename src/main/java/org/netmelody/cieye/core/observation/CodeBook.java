@@ -1,5 +1,8 @@
 package org.netmelody.cieye.core.observation;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.text.SimpleDateFormat;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -7,6 +10,7 @@ import java.util.Map.Entry;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonDeserializer;
@@ -20,33 +24,43 @@ public final class CodeBook {
     private final SimpleDateFormat dateFormat;
     private final ImmutableMap<Class<?>, JsonDeserializer<?>> deserialisers;
     private final Function<String, String> munger;
+    private final boolean rawContentMunged;
+    private final Function<Reader, Reader> streamingMunger;
 
     public CodeBook() {
         this(new SimpleDateFormat());
     }
 
     public CodeBook(SimpleDateFormat dateFormat) {
-        this("", "", dateFormat, Functions.<String>identity(), ImmutableMap.<Class<?>, JsonDeserializer<?>>of());
+        this("", "", dateFormat, Functions.<String>identity(), false, Functions.<Reader>identity(), ImmutableMap.<Class<?>, JsonDeserializer<?>>of());
     }
 
-    private CodeBook(String username, String password, SimpleDateFormat dateFormat, Function<String, String> munger, ImmutableMap<Class<?>, JsonDeserializer<?>> deserialisers) {
+    private CodeBook(String username, String password, SimpleDateFormat dateFormat,
+                     Function<String, String> munger, boolean rawContentMunged, Function<Reader, Reader> streamingMunger,
+                     ImmutableMap<Class<?>, JsonDeserializer<?>> deserialisers) {
         this.username = username;
         this.password = password;
         this.dateFormat = dateFormat;
         this.deserialisers = deserialisers;
         this.munger = munger;
+        this.rawContentMunged = rawContentMunged;
+        this.streamingMunger = streamingMunger;
     }
 
     public CodeBook withCredentials(String name, String pass) {
-        return new CodeBook(name, pass, this.dateFormat, this.munger, this.deserialisers);
+        return new CodeBook(name, pass, this.dateFormat, this.munger, this.rawContentMunged, this.streamingMunger, this.deserialisers);
     }
 
     public CodeBook withRawContentMunger(Function<String, String> munger) {
-        return new CodeBook(this.username, this.password, this.dateFormat, compose(munger, this.munger), this.deserialisers);
+        return new CodeBook(this.username, this.password, this.dateFormat, compose(munger, this.munger), true, this.streamingMunger, this.deserialisers);
+    }
+
+    public CodeBook withStreamingContentMunger(Function<Reader, Reader> munger) {
+        return new CodeBook(this.username, this.password, this.dateFormat, this.munger, this.rawContentMunged, compose(munger, this.streamingMunger), this.deserialisers);
     }
 
     public <T> CodeBook withJsonDeserializerFor(Class<T> type, JsonDeserializer<T> deserialiser) {
-        return new CodeBook(this.username, this.password, this.dateFormat, this.munger, extend(this.deserialisers, type, deserialiser));
+        return new CodeBook(this.username, this.password, this.dateFormat, this.munger, this.rawContentMunged, this.streamingMunger, extend(this.deserialisers, type, deserialiser));
     }
 
     public String username() {
@@ -61,6 +75,26 @@ public final class CodeBook {
         return munger;
     }
 
+    public Function<Reader, Reader> streamingContentMunger() {
+        if (!rawContentMunged) {
+            return streamingMunger;
+        }
+        return compose(streamingMunger, buffered(munger));
+    }
+
+    private static Function<Reader, Reader> buffered(final Function<String, String> munger) {
+        return new Function<Reader, Reader>() {
+            @Override public Reader apply(Reader input) {
+                try {
+                    return new StringReader(munger.apply(CharStreams.toString(input)));
+                }
+                catch (IOException e) {
+                    throw new IllegalStateException("Failed to read content", e);
+                }
+            }
+        };
+    }
+
     private static <X, Y> ImmutableMap<X, Y> extend(Map<X, Y> map, X key, Y value) {
         return ImmutableMap.<X, Y>builder().putAll(map).put(key, value).build();
     }
@@ -0,0 +1,13 @@
+package org.netmelody.cieye.core.observation;
+
+public final class ForgetfulArchive implements Archive {
+
+    @Override
+    public String retrieve(String key) {
+        return null;
+    }
+
+    @Override
+    public void deposit(String key, String record) {
+    }
+}
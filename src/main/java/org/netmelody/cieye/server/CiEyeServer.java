@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 
-import org.netmelody.cieye.core.observation.CommunicationNetwork;
 import org.netmelody.cieye.server.configuration.ServerConfiguration;
 import org.netmelody.cieye.server.observation.GovernmentReport;
 import org.netmelody.cieye.server.observation.GovernmentWatchdog;
@@ -19,9 +18,14 @@ import org.simpleframework.transport.connect.SocketConnection;
 
 public final class CiEyeServer {
 
+    private static final boolean ASYNC_TRANSPORT = Boolean.getBoolean("cieye.http.async");
+    private static final int TRANSPORT_THREADS = Integer.getInteger("cieye.http.transportThreads", 2);
+
     private final ServerConfiguration agency = new ServerConfiguration();
-    private final CommunicationNetwork network = new JsonRestRequesterBuilder();
+    private final JsonRestRequesterBuilder network = (ASYNC_TRANSPORT ? JsonRestRequesterBuilder.asynchronous(TRANSPORT_THREADS)
+                                                                      : new JsonRestRequesterBuilder()).archivingTo(agency.archive());
     private final IntelligenceAgency intelligenceAgency = IntelligenceAgency.create(network, 
+                                                                                    network.circuitBreakers(),
                                                                                     agency.detective(), 
                                                                                     agency.foreignAgents());
     private final Container container =
@@ -49,4 +53,10 @@ public final class CiEyeServer {
         
         System.out.format("Starting CI-Eye server on: %s", socketAddress.toString());
     }
+
+    public void stop() throws IOException {
+        connection.close();
+        intelligenceAgency.shutdown();
+        network.shutdown();
+    }
 }
\ No newline at end of file
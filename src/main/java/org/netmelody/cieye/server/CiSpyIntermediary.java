@@ -5,5 +5,6 @@ import org.netmelody.cieye.core.domain.TargetId;
 
 public interface CiSpyIntermediary {
     TargetGroupBriefing briefingOn(Feature feature);
+    void awaitFreshBriefingsOn(Iterable<Feature> features);
     boolean passNoteOn(Feature feature, TargetId targetId, String note);
 }
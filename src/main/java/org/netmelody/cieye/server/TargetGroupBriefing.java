@@ -4,12 +4,20 @@ import org.netmelody.cieye.core.domain.TargetDetailGroup;
 
 public final class TargetGroupBriefing {
 
+    public static final long UNVERSIONED = -1L;
+
     public final TargetDetailGroup status;
     public final long millisecondsUntilNextUpdate;
+    public final long version;
     
     public TargetGroupBriefing(TargetDetailGroup targetDetailGroup, long millisecondsUntilNextUpdate) {
+        this(targetDetailGroup, millisecondsUntilNextUpdate, UNVERSIONED);
+    }
+    
+    public TargetGroupBriefing(TargetDetailGroup targetDetailGroup, long millisecondsUntilNextUpdate, long version) {
         this.status = targetDetailGroup;
         this.millisecondsUntilNextUpdate = millisecondsUntilNextUpdate;
+        this.version = version;
     }
     
 }
@@ -11,24 +11,31 @@ import org.netmelody.cieye.core.domain.Sponsor;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
 
 public final class Biometric {
     private static final Pattern FINGERPRINT_TEMPLATE = Pattern.compile(".*?\\b(.*)\\b.*?");
     
     private final Sponsor sponsor;
-    private final Iterable<Pattern> fingerprints;
+    private final ImmutableList<String> fingerprints;
+    private final ImmutableList<Pattern> patterns;
     
     public Biometric(Sponsor sponsor, Iterable<String> fingerprints) {
         this.sponsor = sponsor;
-        this.fingerprints = transform(cleaned(fingerprints), toPatterns());
+        this.fingerprints = ImmutableList.copyOf(cleaned(fingerprints));
+        this.patterns = ImmutableList.copyOf(transform(this.fingerprints, toPatterns()));
     }
     
     public Sponsor sponsor() {
         return sponsor;
     }
     
+    public ImmutableList<String> fingerprints() {
+        return fingerprints;
+    }
+    
     public boolean foundAt(final String crimescene) {
-        return any(fingerprints, leftAt(crimescene));
+        return any(patterns, leftAt(crimescene));
     }
     
     private Iterable<String> cleaned(Iterable<String> dirtyFingerprints) {
@@ -0,0 +1,156 @@
+package org.netmelody.cieye.server.configuration;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.netmelody.cieye.core.domain.Sponsor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+public final class FingerprintScanner {
+
+    private final ImmutableList<Sponsor> sponsors;
+    private final Node root = new Node();
+
+    public FingerprintScanner(Iterable<Biometric> biometrics) {
+        this.sponsors = ImmutableList.copyOf(sponsorsOf(biometrics));
+        int index = 0;
+        for (Biometric biometric : biometrics) {
+            for (String fingerprint : biometric.fingerprints()) {
+                addFingerprint(fingerprint, index);
+            }
+            index++;
+        }
+        linkFailures();
+    }
+
+    public Set<Sponsor> scan(String crimeScene) {
+        if (null == crimeScene || sponsors.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final boolean[] found = new boolean[sponsors.size()];
+        final int length = crimeScene.length();
+        Node state = root;
+        for (int position = 0; position < length; position++) {
+            final char c = folded(crimeScene.charAt(position));
+            Node next = state.next(c);
+            while (null == next && state != root) {
+                state = state.failure;
+                next = state.next(c);
+            }
+            state = (null == next) ? root : next;
+
+            for (int match = 0; match < state.matchLengths.length; match++) {
+                final int start = position - state.matchLengths[match] + 1;
+                if (isBoundary(crimeScene, start - 1) && isBoundary(crimeScene, position + 1)) {
+                    found[state.matchSponsors[match]] = true;
+                }
+            }
+        }
+
+        final Set<Sponsor> result = Sets.newLinkedHashSet();
+        for (int index = 0; index < found.length; index++) {
+            if (found[index]) {
+                result.add(sponsors.get(index));
+            }
+        }
+        return result;
+    }
+
+    private void addFingerprint(String fingerprint, int sponsorIndex) {
+        if (fingerprint.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < fingerprint.length(); i++) {
+            node = node.child(folded(fingerprint.charAt(i)));
+        }
+        node.addMatch(fingerprint.length(), sponsorIndex);
+    }
+
+    private void linkFailures() {
+        final Deque<Node> queue = new ArrayDeque<Node>();
+        for (Node child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final Node node = queue.remove();
+            for (Map.Entry<Character, Node> transition : node.children.entrySet()) {
+                final char c = transition.getKey();
+                final Node child = transition.getValue();
+                Node failure = node.failure;
+                while (null == failure.next(c) && failure != root) {
+                    failure = failure.failure;
+                }
+                final Node target = failure.next(c);
+                child.failure = (null == target || target == child) ? root : target;
+                child.inheritMatches(child.failure);
+                queue.add(child);
+            }
+        }
+    }
+
+    private static List<Sponsor> sponsorsOf(Iterable<Biometric> biometrics) {
+        final List<Sponsor> result = Lists.newArrayList();
+        for (Biometric biometric : biometrics) {
+            result.add(biometric.sponsor());
+        }
+        return result;
+    }
+
+    private static char folded(char c) {
+        return (c >= 'A' && c <= 'Z') ? (char)(c + ('a' - 'A')) : c;
+    }
+
+    private static boolean isBoundary(String text, int position) {
+        if (position < 0 || position >= text.length()) {
+            return true;
+        }
+        final char c = text.charAt(position);
+        return !(Character.isLetterOrDigit(c) || c == '_');
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = Maps.newHashMap();
+        private Node failure;
+        private int[] matchLengths = new int[0];
+        private int[] matchSponsors = new int[0];
+
+        public Node next(char c) {
+            return children.get(c);
+        }
+
+        public Node child(char c) {
+            Node child = children.get(c);
+            if (null == child) {
+                child = new Node();
+                children.put(c, child);
+            }
+            return child;
+        }
+
+        public void addMatch(int length, int sponsorIndex) {
+            final int size = matchLengths.length;
+            matchLengths = Arrays.copyOf(matchLengths, size + 1);
+            matchSponsors = Arrays.copyOf(matchSponsors, size + 1);
+            matchLengths[size] = length;
+            matchSponsors[size] = sponsorIndex;
+        }
+
+        public void inheritMatches(Node other) {
+            for (int i = 0; i < other.matchLengths.length; i++) {
+                addMatch(other.matchLengths[i], other.matchSponsors[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.netmelody.cieye.server.configuration;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.netmelody.cieye.core.logging.LogKeeper;
+import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.core.observation.Archive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public final class RecordedArchive implements Archive {
+
+    private static final Logbook LOG = LogKeeper.logbookFor(RecordedArchive.class);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final char SEPARATOR = '\t';
+    private static final long MAXIMUM_CHARACTERS = Long.getLong("cieye.archive.maxCharacters", 16000000L);
+    private static final long FLUSH_MILLIS = Long.getLong("cieye.archive.flushMillis", 1000L);
+    private static final int MINIMUM_LINES_BEFORE_COMPACTION = 1000;
+    private static final int COMPACTION_RATIO = 4;
+
+    private final File file;
+    private final Cache<String, String> records;
+    private final Object disk = new Object();
+    private final ScheduledExecutorService flusher;
+
+    private List<String> pending = new ArrayList<String>();
+    private boolean writable;
+    private Writer writer;
+    private int linesOnDisk;
+
+    public RecordedArchive(File file) {
+        this(file, MAXIMUM_CHARACTERS);
+    }
+
+    public RecordedArchive(File file, long maximumCharacters) {
+        this.file = file;
+        this.records = CacheBuilder.newBuilder()
+                                   .maximumWeight(maximumCharacters)
+                                   .weigher(new Weigher<String, String>() {
+                                       @Override public int weigh(String key, String record) {
+                                           return key.length() + record.length() + 2;
+                                       }
+                                   })
+                                   .build();
+        load();
+        flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("ArchiveWriter-%d")
+                                                                                       .setDaemon(true).build());
+        flusher.scheduleWithFixedDelay(new Runnable() {
+            @Override public void run() { flush(); }
+        }, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String retrieve(String key) {
+        return records.getIfPresent(key);
+    }
+
+    @Override
+    public synchronized void deposit(String key, String record) {
+        if (!storable(key, record) || record.equals(records.getIfPresent(key))) {
+            return;
+        }
+
+        records.put(key, record);
+        if (writable) {
+            pending.add(key + SEPARATOR + record);
+        }
+    }
+
+    public void close() {
+        flusher.shutdownNow();
+        flush();
+        synchronized (disk) {
+            IOUtils.closeQuietly(writer);
+            writer = null;
+        }
+        synchronized (this) {
+            writable = false;
+        }
+    }
+
+    private void flush() {
+        final List<String> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<String>();
+        }
+
+        synchronized (disk) {
+            if (null == writer) {
+                return;
+            }
+            try {
+                for (String line : batch) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+                writer.flush();
+                linesOnDisk += batch.size();
+            }
+            catch (IOException e) {
+                LOG.error("Failed to write to archive " + file.getPath() + ", archiving in memory only", e);
+                IOUtils.closeQuietly(writer);
+                writer = null;
+                synchronized (this) {
+                    writable = false;
+                    pending.clear();
+                }
+                return;
+            }
+
+            if (compactionDue()) {
+                compact();
+            }
+        }
+    }
+
+    private void load() {
+        synchronized (disk) {
+            if (file.canRead()) {
+                BufferedReader reader = null;
+                try {
+                    reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF8));
+                    String line;
+                    while (null != (line = reader.readLine())) {
+                        linesOnDisk++;
+                        final int separatorIndex = line.indexOf(SEPARATOR);
+                        if (separatorIndex > 0) {
+                            records.put(line.substring(0, separatorIndex), line.substring(separatorIndex + 1));
+                        }
+                    }
+                    LOG.info(String.format("Recovered %d archived records from %s", records.size(), file.getPath()));
+                }
+                catch (IOException e) {
+                    LOG.error("Failed to read archive " + file.getPath(), e);
+                }
+                finally {
+                    IOUtils.closeQuietly(reader);
+                }
+            }
+
+            if (compactionDue()) {
+                compact();
+            }
+            else {
+                openWriter();
+            }
+        }
+    }
+
+    private boolean compactionDue() {
+        return linesOnDisk > MINIMUM_LINES_BEFORE_COMPACTION && linesOnDisk > COMPACTION_RATIO * records.size();
+    }
+
+    private void compact() {
+        IOUtils.closeQuietly(writer);
+        writer = null;
+
+        final File compacted = new File(file.getPath() + ".compacting");
+        Writer output = null;
+        try {
+            output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(compacted), UTF8));
+            int lines = 0;
+            for (Map.Entry<String, String> record : records.asMap().entrySet()) {
+                output.write(record.getKey());
+                output.write(SEPARATOR);
+                output.write(record.getValue());
+                output.write('\n');
+                lines++;
+            }
+            output.close();
+            output = null;
+            replaceWith(compacted);
+            linesOnDisk = lines;
+        }
+        catch (IOException e) {
+            LOG.error("Failed to compact archive " + file.getPath(), e);
+            FileUtils.deleteQuietly(compacted);
+        }
+        finally {
+            IOUtils.closeQuietly(output);
+        }
+        openWriter();
+    }
+
+    private void replaceWith(File compacted) throws IOException {
+        if (compacted.renameTo(file)) {
+            return;
+        }
+        FileUtils.deleteQuietly(file);
+        FileUtils.moveFile(compacted, file);
+    }
+
+    private void openWriter() {
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), UTF8));
+        }
+        catch (IOException e) {
+            LOG.error("Failed to open archive " + file.getPath() + ", archiving in memory only", e);
+            writer = null;
+        }
+        synchronized (this) {
+            writable = (null != writer);
+        }
+    }
+
+    private static boolean storable(String key, String record) {
+        return null != key && null != record && key.length() > 0
+            && key.indexOf(SEPARATOR) < 0 && key.indexOf('\n') < 0 && key.indexOf('\r') < 0
+            && record.indexOf('\n') < 0 && record.indexOf('\r') < 0;
+    }
+}
@@ -6,30 +6,40 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.netmelody.cieye.core.domain.Sponsor;
+import org.netmelody.cieye.core.logging.LatencyHistogram;
+import org.netmelody.cieye.core.logging.Metrics;
 import org.netmelody.cieye.core.observation.KnownOffendersDirectory;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import org.netmelody.cieye.server.configuration.avatar.PictureUrlRegistry;
 
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.getFirst;
 import static com.google.common.collect.Iterables.skip;
 import static com.google.common.collect.Iterables.transform;
-import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Sets.newHashSet;
-import static java.util.Collections.unmodifiableSet;
 import static org.netmelody.cieye.core.utility.Irritables.partition;
 
 public final class RecordedKnownOffenders implements KnownOffendersDirectory, Refreshable {
     
     private static final Pattern PICTURE_FILENAME_REGEX = Pattern.compile("^\\s*\\[(.*)\\]\\s*$");
 
+    private static final long MAXIMUM_CACHED_CHARACTERS = 4000000L;
+
     private static final PictureUrlRegistry pictureUrlRegistry = new PictureUrlRegistry();
+    private static final LatencyHistogram SCAN_LATENCY = Metrics.registry().histogram("sponsors.scan");
     
     private final SettingsFile picturesFile;
     
-    private Iterable<Biometric> biometrics = newArrayList();
+    private volatile Generation generation = new Generation(ImmutableList.<Biometric>of());
+    private CacheStats retiredStats = new CacheStats(0L, 0L, 0L, 0L, 0L, 0L);
     
     public RecordedKnownOffenders(SettingsFile picturesFile) {
         this.picturesFile = picturesFile.newReference();
@@ -45,31 +55,21 @@ public final class RecordedKnownOffenders implements KnownOffendersDirectory, Re
     
     @Override
     public Set<Sponsor> search(String crimeScene) {
-        return unmodifiableSet(newHashSet(transform(filter(biometrics, foundAt(crimeScene)), toSponsor())));
+        return generation.search(crimeScene);
     }
     
-    private void loadPictureSettings() {
-        biometrics = extractPicuresFrom(picturesFile.readContent());
+    public synchronized CacheStats searchStats() {
+        return retiredStats.plus(generation.searches.stats());
     }
-
-    private static Iterable<Biometric> extractPicuresFrom(List<String> content) {
-        return transform(skip(partition(content, byPicture()), 1), toBiometric());
-    }
-
-    private Function<Biometric, Sponsor> toSponsor() {
-        return new Function<Biometric, Sponsor>() {
-            @Override public Sponsor apply(Biometric bio) {
-                return bio.sponsor();
-            }
-        };
+    
+    private synchronized void loadPictureSettings() {
+        final Generation retired = generation;
+        generation = new Generation(extractPicuresFrom(picturesFile.readContent()));
+        retiredStats = retiredStats.plus(retired.searches.stats());
     }
 
-    private Predicate<Biometric> foundAt(final String crimescene) {
-        return new Predicate<Biometric>() {
-            @Override public boolean apply(Biometric bio) {
-                return bio.foundAt(crimescene);
-            }
-        };
+    private static Iterable<Biometric> extractPicuresFrom(List<String> content) {
+        return ImmutableList.copyOf(transform(skip(partition(content, byPicture()), 1), toBiometric()));
     }
     
     private static Predicate<String> byPicture() {
@@ -107,4 +107,39 @@ public final class RecordedKnownOffenders implements KnownOffendersDirectory, Re
     private static String getPictureUrl(final String image) {
       return pictureUrlRegistry.getPictureUrl(image);
     }
+
+    private static final class Generation {
+        private final FingerprintScanner scanner;
+        private final LoadingCache<String, Set<Sponsor>> searches;
+
+        public Generation(Iterable<Biometric> biometrics) {
+            this.scanner = new FingerprintScanner(biometrics);
+            this.searches = CacheBuilder.newBuilder()
+                                        .maximumWeight(MAXIMUM_CACHED_CHARACTERS)
+                                        .weigher(new Weigher<String, Set<Sponsor>>() {
+                                            @Override public int weigh(String crimeScene, Set<Sponsor> sponsors) {
+                                                return crimeScene.length() + 1;
+                                            }
+                                        })
+                                        .recordStats()
+                                        .build(new CacheLoader<String, Set<Sponsor>>() {
+                                            @Override public Set<Sponsor> load(String crimeScene) {
+                                                final long startTime = System.currentTimeMillis();
+                                                try {
+                                                    return ImmutableSet.copyOf(scanner.scan(crimeScene));
+                                                }
+                                                finally {
+                                                    SCAN_LATENCY.record(System.currentTimeMillis() - startTime);
+                                                }
+                                            }
+                                        });
+        }
+
+        public Set<Sponsor> search(String crimeScene) {
+            if (null == crimeScene) {
+                return ImmutableSet.of();
+            }
+            return searches.getUnchecked(crimeScene);
+        }
+    }
 }
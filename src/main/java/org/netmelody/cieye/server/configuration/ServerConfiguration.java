@@ -4,6 +4,10 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.netmelody.cieye.core.logging.Gauge;
+import org.netmelody.cieye.core.logging.Metrics;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
+import org.netmelody.cieye.core.observation.Archive;
 import org.netmelody.cieye.core.observation.KnownOffendersDirectory;
 import org.netmelody.cieye.server.CiEyeServerInformationFetcher;
 import org.netmelody.cieye.server.ObservationAgencyFetcher;
@@ -19,6 +23,7 @@ public final class ServerConfiguration {
     private final RecordedObservationTargets targets = new RecordedObservationTargets(settings.viewsFile());
     private final ServiceLoadingRecordedForeignAgencies foreignAgencies = new ServiceLoadingRecordedForeignAgencies(settings.pluginDirectory());
     private final Album album = new Album(settings.picturesDirectory());
+    private final RecordedArchive archive = new RecordedArchive(settings.archiveFile());
 
     private static final class Refresher implements Runnable {
         private final Refreshable refreshable;
@@ -36,6 +41,14 @@ public final class ServerConfiguration {
         executor.scheduleWithFixedDelay(new Refresher(detective), 1L, 10L, TimeUnit.SECONDS);
         executor.scheduleWithFixedDelay(new Refresher(targets), 1L, 10L, TimeUnit.SECONDS);
         executor.scheduleWithFixedDelay(new Refresher(foreignAgencies), 1L, 10L, TimeUnit.SECONDS);
+        
+        final MetricsRegistry metrics = Metrics.registry();
+        metrics.gauge(new Gauge() {
+            @Override public long reading() { return detective.searchStats().hitCount(); }
+        }, "sponsors.search.hits");
+        metrics.gauge(new Gauge() {
+            @Override public long reading() { return detective.searchStats().missCount(); }
+        }, "sponsors.search.misses");
     }
     
     public KnownOffendersDirectory detective() {
@@ -57,4 +70,8 @@ public final class ServerConfiguration {
     public ObservationAgencyFetcher foreignAgents() {
         return foreignAgencies;
     }
+    
+    public Archive archive() {
+        return archive;
+    }
 }
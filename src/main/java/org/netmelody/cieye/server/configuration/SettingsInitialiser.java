@@ -15,6 +15,7 @@ public final class SettingsInitialiser {
     private final File picturesFile;
     private final File picturesDir;
     private final File pluginsDir;
+    private final File archiveFile;
 
     public SettingsInitialiser() {
         this(new File(FileUtils.getUserDirectory(), ".ci-eye"));
@@ -26,6 +27,7 @@ public final class SettingsInitialiser {
         this.picturesFile = new File(homeDir, "pictures.txt");
         this.picturesDir = new File(homeDir, "pictures");
         this.pluginsDir = new File(homeDir, "plugins");
+        this.archiveFile = new File(homeDir, "archive.log");
         
         try {
             startLogger();
@@ -116,4 +118,8 @@ public final class SettingsInitialiser {
     public PluginDirectory pluginDirectory() {
         return new PluginDirectory(pluginsDir);
     }
+
+    public File archiveFile() {
+        return archiveFile;
+    }
 }
@@ -3,10 +3,16 @@ package org.netmelody.cieye.server.observation;
 import static com.google.common.cache.CacheLoader.from;
 
 import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.netmelody.cieye.core.domain.CiServerType;
 import org.netmelody.cieye.core.domain.Feature;
 import org.netmelody.cieye.core.domain.TargetId;
+import org.netmelody.cieye.core.logging.Gauge;
+import org.netmelody.cieye.core.logging.Metrics;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
 import org.netmelody.cieye.core.observation.CiSpy;
 import org.netmelody.cieye.core.observation.CommunicationNetwork;
 import org.netmelody.cieye.core.observation.KnownOffendersDirectory;
@@ -14,6 +20,7 @@ import org.netmelody.cieye.core.observation.ObservationAgency;
 import org.netmelody.cieye.server.CiSpyIntermediary;
 import org.netmelody.cieye.server.ObservationAgencyFetcher;
 import org.netmelody.cieye.server.TargetGroupBriefing;
+import org.netmelody.cieye.server.observation.protocol.CircuitBreakers;
 
 import com.google.common.base.Function;
 import com.google.common.cache.CacheBuilder;
@@ -21,17 +28,28 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public final class IntelligenceAgency implements CiSpyIntermediary {
 
+    private static final int POLLER_THREADS = Integer.getInteger("cieye.polling.pollerThreads", 4);
+    private static final int STATUS_FETCHER_THREADS = Integer.getInteger("cieye.polling.fetcherThreads", 16);
+    private static final int MAX_CONCURRENT_FETCHES_PER_FEATURE = Integer.getInteger("cieye.polling.fetchesPerFeature", 4);
+    private static final long FRESH_RESULT_WAIT_MILLIS = Long.getLong("cieye.polling.freshResultWaitMillis", 2000L);
+
     public static IntelligenceAgency create(CommunicationNetwork network,
+                                            CircuitBreakers breakers,
                                             KnownOffendersDirectory directory, 
                                             ObservationAgencyFetcher foreignAgencies) {
-        IntelligenceAgency agency = new IntelligenceAgency(network, directory, foreignAgencies);
+        IntelligenceAgency agency = new IntelligenceAgency(network, breakers, directory, foreignAgencies);
         return agency;
     }
 
     private final Map<CiServerType, ObservationAgency> agencies = Maps.newHashMap();
+    private final PollingScheduler scheduler = new PollingScheduler(POLLER_THREADS);
+    private final ThreadPoolExecutor statusFetchers =
+            new ThreadPoolExecutor(STATUS_FETCHER_THREADS, STATUS_FETCHER_THREADS, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+                                   new ThreadFactoryBuilder().setNameFormat("StatusFetcher-%d").setDaemon(true).build());
 
     private final LoadingCache<Feature, PollingSpyHandler> handlers =
             CacheBuilder.newBuilder().removalListener(new RemovalListener<Feature, PollingSpyHandler>() {
@@ -47,13 +65,32 @@ public final class IntelligenceAgency implements CiSpyIntermediary {
             }));
 
     private final CommunicationNetwork network;
+    private final CircuitBreakers breakers;
     private final KnownOffendersDirectory directory;
     private final ObservationAgencyFetcher foreignAgencies;
 
-    private IntelligenceAgency(CommunicationNetwork network, KnownOffendersDirectory directory, ObservationAgencyFetcher foreignAgencies) {
+    private IntelligenceAgency(CommunicationNetwork network, CircuitBreakers breakers, KnownOffendersDirectory directory, ObservationAgencyFetcher foreignAgencies) {
         this.network = network;
+        this.breakers = breakers;
         this.directory = directory;
         this.foreignAgencies = foreignAgencies;
+        
+        final MetricsRegistry metrics = Metrics.registry();
+        metrics.gauge(new Gauge() {
+            @Override public long reading() { return scheduler.queueDepth(); }
+        }, "polling.scheduler.queueDepth");
+        metrics.gauge(new Gauge() {
+            @Override public long reading() { return scheduler.latestLagMillis(); }
+        }, "polling.scheduler.latestLagMillis");
+        metrics.gauge(new Gauge() {
+            @Override public long reading() { return scheduler.maximumLagMillis(); }
+        }, "polling.scheduler.maximumLagMillis");
+        metrics.gauge(new Gauge() {
+            @Override public long reading() { return statusFetchers.getQueue().size(); }
+        }, "polling.fetchers.queueDepth");
+        metrics.gauge(new Gauge() {
+            @Override public long reading() { return statusFetchers.getActiveCount(); }
+        }, "polling.fetchers.active");
     }
 
     private PollingSpyHandler spyFor(Feature feature) {
@@ -71,13 +108,36 @@ public final class IntelligenceAgency implements CiSpyIntermediary {
     private PollingSpyHandler createSpyFor(Feature feature) {
         final ObservationAgency agency = foreignAgencies.agencyFor(feature.type());
         final CiSpy spy = agency.provideSpyFor(feature, network, directory);
-        return new PollingSpyHandler(spy, feature);
+        return new PollingSpyHandler(spy, feature, scheduler, statusFetchers, MAX_CONCURRENT_FETCHES_PER_FEATURE, breakers);
+    }
+
+    public PollingScheduler scheduler() {
+        return scheduler;
+    }
+
+    public void shutdown() {
+        handlers.invalidateAll();
+        scheduler.shutdown();
+        statusFetchers.shutdownNow();
     }
 
     @Override
     public TargetGroupBriefing briefingOn(Feature feature) {
-        PollingSpyHandler spy = spyFor(feature);
-        return new TargetGroupBriefing(spy.statusOf(feature), spy.millisecondsUntilNextUpdate(feature));
+        return spyFor(feature).briefingOn(feature);
+    }
+
+    @Override
+    public void awaitFreshBriefingsOn(Iterable<Feature> features) {
+        if (FRESH_RESULT_WAIT_MILLIS <= 0L) {
+            return;
+        }
+        for (Feature feature : features) {
+            spyFor(feature).wake(feature);
+        }
+        final long deadline = System.currentTimeMillis() + FRESH_RESULT_WAIT_MILLIS;
+        for (Feature feature : features) {
+            spyFor(feature).awaitFreshResultFor(feature, deadline);
+        }
     }
 
     @Override
@@ -0,0 +1,176 @@
+package org.netmelody.cieye.server.observation;
+
+import static java.lang.System.currentTimeMillis;
+
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.netmelody.cieye.core.logging.LogKeeper;
+import org.netmelody.cieye.core.logging.Logbook;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public final class PollingScheduler {
+
+    private static final Logbook LOG = LogKeeper.logbookFor(PollingScheduler.class);
+
+    private final ScheduledExecutorService timer;
+    private final ThreadPoolExecutor pollers;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long latestLagMillis = 0L;
+    private volatile long maximumLagMillis = 0L;
+
+    public PollingScheduler(int pollerThreads) {
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("PollingTimer-%d").setDaemon(true).build());
+        this.pollers = new ThreadPoolExecutor(pollerThreads, pollerThreads, 0L, TimeUnit.MILLISECONDS,
+                                              new PriorityBlockingQueue<Runnable>(11, DUE_FIRST),
+                                              new ThreadFactoryBuilder().setNameFormat("Poller-%d").setDaemon(true).build());
+    }
+
+    public Registration register(String name, Runnable poll, long periodMillis) {
+        final Registration registration = new Registration(name, poll, periodMillis);
+        registration.start();
+        return registration;
+    }
+
+    public int queueDepth() {
+        return pollers.getQueue().size();
+    }
+
+    public long latestLagMillis() {
+        return latestLagMillis;
+    }
+
+    public long maximumLagMillis() {
+        return maximumLagMillis;
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+        pollers.shutdownNow();
+    }
+
+    private void recordLag(long lagMillis) {
+        latestLagMillis = lagMillis;
+        if (lagMillis > maximumLagMillis) {
+            maximumLagMillis = lagMillis;
+        }
+    }
+
+    public final class Registration {
+        private final String name;
+        private final Runnable poll;
+        private final long periodMillis;
+        private volatile boolean registered = true;
+        
+        private long generation = 0L;
+        private boolean polling = false;
+        private boolean pollAgain = false;
+
+        private Registration(String name, Runnable poll, long periodMillis) {
+            this.name = name;
+            this.poll = poll;
+            this.periodMillis = periodMillis;
+        }
+
+        public void deregister() {
+            registered = false;
+        }
+
+        public synchronized void pollNow() {
+            if (!registered) {
+                return;
+            }
+            if (polling) {
+                pollAgain = true;
+                return;
+            }
+            enqueue(++generation, true);
+        }
+
+        private synchronized void start() {
+            enqueue(generation, false);
+        }
+
+        private void enqueue(long scheduledGeneration, boolean urgent) {
+            if (registered) {
+                pollers.execute(new PollTask(this, currentTimeMillis(), sequence.incrementAndGet(), scheduledGeneration, urgent));
+            }
+        }
+
+        private void poll(PollTask task) {
+            synchronized (this) {
+                if (!registered || task.generation != generation) {
+                    return;
+                }
+                polling = true;
+            }
+            recordLag(currentTimeMillis() - task.dueTime);
+            try {
+                poll.run();
+            }
+            catch (Exception e) {
+                LOG.fatal("Poll of " + name + " failed.", e);
+            }
+            finally {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            polling = false;
+            if (!registered) {
+                return;
+            }
+            if (pollAgain) {
+                pollAgain = false;
+                enqueue(++generation, true);
+                return;
+            }
+            final long scheduledGeneration = generation;
+            timer.schedule(new Runnable() {
+                @Override public void run() { enqueue(scheduledGeneration, false); }
+            }, periodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class PollTask implements Runnable {
+        private final Registration registration;
+        private final long dueTime;
+        private final long sequenceNumber;
+        private final long generation;
+        private final boolean urgent;
+
+        public PollTask(Registration registration, long dueTime, long sequenceNumber, long generation, boolean urgent) {
+            this.registration = registration;
+            this.dueTime = dueTime;
+            this.sequenceNumber = sequenceNumber;
+            this.generation = generation;
+            this.urgent = urgent;
+        }
+
+        @Override
+        public void run() {
+            registration.poll(this);
+        }
+    }
+
+    private static final Comparator<Runnable> DUE_FIRST = new Comparator<Runnable>() {
+        @Override public int compare(Runnable left, Runnable right) {
+            final PollTask leftTask = (PollTask)left;
+            final PollTask rightTask = (PollTask)right;
+            if (leftTask.urgent != rightTask.urgent) {
+                return leftTask.urgent ? -1 : 1;
+            }
+            if (leftTask.dueTime != rightTask.dueTime) {
+                return (leftTask.dueTime < rightTask.dueTime) ? -1 : 1;
+            }
+            return (leftTask.sequenceNumber < rightTask.sequenceNumber) ? -1 : ((leftTask.sequenceNumber == rightTask.sequenceNumber) ? 0 : 1);
+        }
+    };
+}
@@ -2,85 +2,139 @@ package org.netmelody.cieye.server.observation;
 
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.transform;
+import static com.google.common.collect.Iterables.elementsEqual;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.netmelody.cieye.core.domain.Feature;
+import org.netmelody.cieye.core.domain.RunningBuild;
+import org.netmelody.cieye.core.domain.Status;
 import org.netmelody.cieye.core.domain.TargetDetail;
 import org.netmelody.cieye.core.domain.TargetDetailGroup;
 import org.netmelody.cieye.core.domain.TargetDigest;
 import org.netmelody.cieye.core.domain.TargetDigestGroup;
 import org.netmelody.cieye.core.domain.TargetId;
+import org.netmelody.cieye.core.logging.Gauge;
 import org.netmelody.cieye.core.logging.LogKeeper;
 import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.core.logging.Metrics;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
 import org.netmelody.cieye.core.observation.CiSpy;
+import org.netmelody.cieye.server.TargetGroupBriefing;
+import org.netmelody.cieye.server.observation.PollingScheduler.Registration;
+import org.netmelody.cieye.server.observation.protocol.CircuitBreaker;
+import org.netmelody.cieye.server.observation.protocol.CircuitBreakers;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.MapMaker;
-import com.google.common.collect.Maps;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public final class PollingSpyHandler {
 
     private static final Logbook LOG = LogKeeper.logbookFor(PollingSpyHandler.class);
+    private static final MetricsRegistry METRICS = Metrics.registry();
 
     private static final long POLLING_PERIOD_SECONDS = 5L;
+    private static final long POLLING_PERIOD_MILLIS = TimeUnit.SECONDS.toMillis(POLLING_PERIOD_SECONDS);
+    private static final long MAXIMUM_POLLING_PERIOD_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong("cieye.polling.maximumPeriodSeconds", 300L));
     private static final long CUTOFF_PERIOD_MINUTES = 15L;
+    private static final AtomicLong VERSIONS = new AtomicLong();
 
     private final CiSpy trustedSpy;
-    private final ScheduledExecutorService executor;
+    private final Registration registration;
+    private final ExecutorService statusFetchers;
+    private final int maxConcurrentFetches;
+    private final CircuitBreakers breakers;
 
     private final ConcurrentMap<Feature, Long> requests = new MapMaker().makeMap();
-    private final ConcurrentMap<Feature, StatusResult> statuses = new MapMaker().makeMap();
+    private final ConcurrentMap<Feature, StatusBoard> statuses = new MapMaker().makeMap();
+    private final ConcurrentMap<TargetId, TargetCadence> cadences = new MapMaker().makeMap();
+    private final ConcurrentMap<Feature, CountDownLatch> freshResults = new MapMaker().makeMap();
+    private final ConcurrentMap<Feature, Long> lastCycles = new MapMaker().makeMap();
 
 
-    public PollingSpyHandler(CiSpy untrustedSpy, Feature feature) {
+    public PollingSpyHandler(CiSpy untrustedSpy, Feature feature, PollingScheduler scheduler,
+                             ExecutorService statusFetchers, int maxConcurrentFetches) {
+        this(untrustedSpy, feature, scheduler, statusFetchers, maxConcurrentFetches, new CircuitBreakers());
+    }
+
+    public PollingSpyHandler(CiSpy untrustedSpy, Feature feature, PollingScheduler scheduler,
+                             ExecutorService statusFetchers, int maxConcurrentFetches, CircuitBreakers breakers) {
         this.trustedSpy = new TrustedSpy(untrustedSpy);
-        this.executor = Executors.newSingleThreadScheduledExecutor(threadsNamed(feature, untrustedSpy));
-        this.executor.scheduleWithFixedDelay(new StatusUpdater(), 0L, POLLING_PERIOD_SECONDS, TimeUnit.SECONDS);
+        this.statusFetchers = statusFetchers;
+        this.maxConcurrentFetches = Math.max(1, maxConcurrentFetches);
+        this.breakers = breakers;
+        this.registration = scheduler.register(nameOf(feature, untrustedSpy), new StatusUpdater(),
+                                               POLLING_PERIOD_MILLIS);
     }
 
-    private ThreadFactory threadsNamed(Feature feature, CiSpy untrustedSpy) {
-        String threadPrefix = format("%s-%s-%s", 
+    private static String nameOf(Feature feature, CiSpy untrustedSpy) {
+        return format("%s-%s-%s", 
                 untrustedSpy.getClass().getSimpleName(), 
                 feature.type().name(), 
                 feature.name());
-        return new ThreadFactoryBuilder().setNameFormat(threadPrefix + "-%d").build();
     }
 
-    public TargetDetailGroup statusOf(Feature feature) {
-        final long currentTimeMillis = currentTimeMillis();
-        requests.put(feature, currentTimeMillis);
-        
-        final StatusResult result = statuses.get(feature);
-        if (null != result) {
-            return result.status();
+    public void wake(Feature feature) {
+        final Long previousRequest = requests.put(feature, currentTimeMillis());
+        if (null == previousRequest || previousRequest <= cutoffTime()) {
+            freshResults.put(feature, new CountDownLatch(1));
+            registration.pollNow();
         }
+    }
+    
+    public TargetGroupBriefing briefingOn(Feature feature) {
+        wake(feature);
         
-        final TargetDetailGroup digest = new TargetDetailGroup(trustedSpy.targetsConstituting(feature));
-        statuses.putIfAbsent(feature, new StatusResult(digest));
+        if (null == statuses.get(feature)) {
+            final StatusBoard initial = new StatusBoard(trustedSpy.targetsConstituting(feature), null);
+            if (null == statuses.putIfAbsent(feature, initial) && breakers.breakerFor(feature.endpoint()).unavailableAt(currentTimeMillis())) {
+                markUnreachable(initial);
+            }
+        }
         
-        return digest;
+        final StatusBoard board = statuses.get(feature);
+        final StatusResult result = board.snapshot();
+        return new TargetGroupBriefing(result.status(), board.millisecondsUntilNextUpdate(), result.version());
     }
-
-    public long millisecondsUntilNextUpdate(Feature feature) {
-        final StatusResult statusResult = statuses.get(feature);
-        if (null != statusResult) {
-            return Math.max(0L, TimeUnit.SECONDS.toMillis(POLLING_PERIOD_SECONDS) - statusResult.ageInMillis());
+    
+    public void awaitFreshResultFor(Feature feature, long deadlineMillis) {
+        final CountDownLatch freshResult = freshResults.get(feature);
+        if (null == freshResult) {
+            return;
+        }
+        try {
+            freshResult.await(Math.max(0L, deadlineMillis - currentTimeMillis()), TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return 0L;
+        finally {
+            freshResults.remove(feature, freshResult);
+        }
+    }
+    
+    private static long cutoffTime() {
+        return currentTimeMillis() - TimeUnit.MINUTES.toMillis(CUTOFF_PERIOD_MINUTES);
     }
 
     public boolean takeNoteOf(TargetId targetId, String note) {
@@ -88,32 +142,164 @@ public final class PollingSpyHandler {
     }
     
     public void endMission() {
-        this.executor.shutdown();
+        this.registration.deregister();
+        for (Feature feature : lastCycles.keySet()) {
+            METRICS.forgetGauge("polling.stalenessMillis", labelsOf(feature));
+        }
     }
     
     private void update() {
-        final long cutoffTime = currentTimeMillis() - TimeUnit.MINUTES.toMillis(CUTOFF_PERIOD_MINUTES);
-        final Iterable<Feature> features = transform(filter(requests.entrySet(), requestedAfter(cutoffTime)), toFeature());
+        final Iterable<Feature> features = transform(filter(requests.entrySet(), requestedAfter(cutoffTime())), toFeature());
         
         for (Feature feature : features) {
-            final TargetDigestGroup targets = trustedSpy.targetsConstituting(feature);
+            final long cycleStart = currentTimeMillis();
+            final CircuitBreaker breaker = breakers.breakerFor(feature.endpoint());
+            if (breaker.unavailableAt(cycleStart)) {
+                unreachable(feature, cycleStart);
+                continue;
+            }
             
-            StatusResult intermediateStatus = statuses.get(feature);
-            if (null == intermediateStatus) {
-                intermediateStatus = new StatusResult(new TargetDetailGroup(targets));
-                statuses.putIfAbsent(feature, intermediateStatus);
+            final TargetDigestGroup targets = trustedSpy.targetsConstituting(feature);
+            METRICS.histogram("polling.survey", labelsOf(feature)).record(currentTimeMillis() - cycleStart);
+            if (!breaker.closed()) {
+                unreachable(feature, cycleStart);
+                continue;
             }
+            forgetCadencesBeyond(targets);
+            
+            final StatusBoard board = new StatusBoard(targets, statuses.get(feature));
+            statuses.put(feature, board);
             
-            final List<TargetDetail> newStatus = newArrayList();
+            final long pollTime = currentTimeMillis();
+            final List<TargetDigest> due = newArrayList();
             for (TargetDigest digest : targets) {
-                final TargetDetail target = trustedSpy.statusOf(digest.id());
-                newStatus.add(target);
-                intermediateStatus = intermediateStatus.updatedWith(target);
-                statuses.put(feature, intermediateStatus);
+                if (dueBy(pollTime + POLLING_PERIOD_MILLIS / 2, digest)) {
+                    due.add(digest);
+                }
             }
             
-            statuses.put(feature, new StatusResult(newStatus));
+            final CompletionService<TargetDetail> fetches = new ExecutorCompletionService<TargetDetail>(statusFetchers);
+            final Iterator<TargetDigest> pending = due.iterator();
+            int inFlight = 0;
+            while (inFlight < maxConcurrentFetches && pending.hasNext()) {
+                fetches.submit(new StatusFetcher(feature, pending.next(), board));
+                inFlight++;
+            }
+            
+            while (inFlight > 0) {
+                final TargetDetail target = nextCompleted(fetches);
+                if (null == target) {
+                    return;
+                }
+                inFlight--;
+                
+                if (breaker.closed()) {
+                    observed(target);
+                    board.record(target);
+                }
+                
+                if (pending.hasNext()) {
+                    fetches.submit(new StatusFetcher(feature, pending.next(), board));
+                    inFlight++;
+                }
+            }
+            
+            if (!breaker.closed()) {
+                unreachable(feature, cycleStart);
+                continue;
+            }
+            
+            board.nextUpdateAt(nextUpdateOf(targets));
+            cycleCompleted(feature, cycleStart, due.size());
+            freshResultAvailableFor(feature);
+        }
+    }
+    
+    private void unreachable(Feature feature, long cycleStart) {
+        final StatusBoard board = statuses.get(feature);
+        if (null != board) {
+            markUnreachable(board);
+        }
+        cycleCompleted(feature, cycleStart, 0);
+        freshResultAvailableFor(feature);
+    }
+    
+    private static void markUnreachable(StatusBoard board) {
+        for (TargetDetail target : board.snapshot().status()) {
+            board.record(new TargetDetail(target.id().id(), target.webUrl(), target.name(), Status.UNREACHABLE,
+                                          target.lastStartTime(), ImmutableList.<RunningBuild>of(), target.sponsors()));
+        }
+        board.nextUpdateAt(currentTimeMillis() + POLLING_PERIOD_MILLIS);
+    }
+    
+    private void freshResultAvailableFor(Feature feature) {
+        final CountDownLatch freshResult = freshResults.remove(feature);
+        if (null != freshResult) {
+            freshResult.countDown();
+        }
+    }
+    
+    private void cycleCompleted(final Feature feature, long cycleStart, int fetchCount) {
+        final long now = currentTimeMillis();
+        METRICS.histogram("polling.cycle", labelsOf(feature)).record(now - cycleStart);
+        METRICS.counter("polling.fetches", labelsOf(feature)).add(fetchCount);
+        if (null == lastCycles.put(feature, now)) {
+            METRICS.gauge(new Gauge() {
+                @Override public long reading() {
+                    final Long lastCycle = lastCycles.get(feature);
+                    return (null == lastCycle) ? 0L : currentTimeMillis() - lastCycle;
+                }
+            }, "polling.stalenessMillis", labelsOf(feature));
+        }
+    }
+    
+    private static String[] labelsOf(Feature feature) {
+        return new String[] { "type", feature.type().name(), "endpoint", feature.endpoint(), "feature", feature.name() };
+    }
+    
+    private void forgetCadencesBeyond(TargetDigestGroup targets) {
+        final Set<TargetId> current = newHashSet();
+        for (TargetDigest digest : targets) {
+            current.add(digest.id());
+        }
+        cadences.keySet().retainAll(current);
+    }
+    
+    private boolean dueBy(long timeMillis, TargetDigest digest) {
+        final TargetCadence cadence = cadences.get(digest.id());
+        return null == cadence || cadence.dueBy(timeMillis, digest);
+    }
+    
+    private void observed(TargetDetail target) {
+        final long now = currentTimeMillis();
+        final TargetCadence cadence = cadences.get(target.id());
+        cadences.put(target.id(), (null == cadence) ? TargetCadence.firstObservation(target, now, POLLING_PERIOD_MILLIS, MAXIMUM_POLLING_PERIOD_MILLIS)
+                                                    : cadence.observed(target, now));
+    }
+    
+    private long nextUpdateOf(TargetDigestGroup targets) {
+        final long now = currentTimeMillis();
+        long earliestDue = now + MAXIMUM_POLLING_PERIOD_MILLIS;
+        for (TargetDigest digest : targets) {
+            final TargetCadence cadence = cadences.get(digest.id());
+            earliestDue = Math.min(earliestDue, (null == cadence) ? now : cadence.nextDueMillisFor(digest));
+        }
+        final long wait = earliestDue - now - POLLING_PERIOD_MILLIS / 2;
+        final long polls = (wait <= 0L) ? 1L : Math.max(1L, (wait + POLLING_PERIOD_MILLIS - 1) / POLLING_PERIOD_MILLIS);
+        return now + polls * POLLING_PERIOD_MILLIS;
+    }
+    
+    private static TargetDetail nextCompleted(CompletionService<TargetDetail> fetches) {
+        try {
+            return fetches.take().get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e) {
+            LOG.fatal("Status fetch failed.", e);
         }
+        return null;
     }
     
     private static Function<Entry<Feature, Long>, Feature> toFeature() {
@@ -129,31 +315,106 @@ public final class PollingSpyHandler {
     }
     
     private static final class StatusResult {
-        private final ImmutableMap<TargetId, TargetDetail> status;
-        private final long timestamp;
+        private final TargetDetailGroup status;
+        private final long version;
 
-        public StatusResult(Iterable<TargetDetail> status) {
-            this(Maps.uniqueIndex(status, toId()), System.currentTimeMillis());
-        }
-        private StatusResult(ImmutableMap<TargetId, TargetDetail> status, long timestamp) {
+        public StatusResult(TargetDetailGroup status, long version) {
             this.status = status;
-            this.timestamp = timestamp;
-        }
-        private static Function<TargetDetail, TargetId> toId() {
-            return new Function<TargetDetail, TargetId>() {
-                @Override public TargetId apply(TargetDetail input) { return input.id(); }
-            };
+            this.version = version;
         }
         public TargetDetailGroup status() {
-            return TargetDetailGroup.of(status.values());
+            return status;
+        }
+        public long version() {
+            return version;
         }
-        public long ageInMillis() {
-            return currentTimeMillis() - timestamp;
+    }
+    
+    private static final class StatusBoard {
+        private final ImmutableMap<TargetId, Integer> positions;
+        private final AtomicReferenceArray<TargetDetail> slots;
+        private volatile long version;
+        private volatile long nextUpdateMillis;
+        private volatile StatusResult snapshot;
+
+        public StatusBoard(TargetDigestGroup targets, StatusBoard previous) {
+            final ImmutableMap.Builder<TargetId, Integer> positionsBuilder = ImmutableMap.builder();
+            final List<TargetDetail> initial = newArrayList();
+            for (TargetDigest digest : targets) {
+                final TargetDetail known = (null == previous) ? null : previous.statusOf(digest.id());
+                positionsBuilder.put(digest.id(), initial.size());
+                initial.add((null == known) ? new TargetDetail(digest.id().id(), digest.webUrl(), digest.name(), digest.status(), 0L) : known);
+            }
+            this.positions = positionsBuilder.build();
+            this.slots = new AtomicReferenceArray<TargetDetail>(initial.toArray(new TargetDetail[initial.size()]));
+            
+            if (null != previous && elementsEqual(initial, previous.snapshot().status())) {
+                this.version = previous.version;
+                this.snapshot = previous.snapshot;
+            }
+            else {
+                this.version = VERSIONS.incrementAndGet();
+            }
+            this.nextUpdateMillis = (null == previous) ? currentTimeMillis() + POLLING_PERIOD_MILLIS : previous.nextUpdateMillis;
         }
-        public StatusResult updatedWith(TargetDetail target) {
-            Map<TargetId, TargetDetail> newTargets = Maps.newHashMap(status);
-            newTargets.put(target.id(), target);
-            return new StatusResult(ImmutableMap.copyOf(newTargets), timestamp); 
+        public TargetDetail statusOf(TargetId targetId) {
+            final Integer position = positions.get(targetId);
+            return (null == position) ? null : slots.get(position);
+        }
+        public void record(TargetDetail target) {
+            final Integer position = positions.get(target.id());
+            if (null != position && !target.equals(slots.getAndSet(position, target))) {
+                version = VERSIONS.incrementAndGet();
+            }
+        }
+        public void nextUpdateAt(long timeMillis) {
+            nextUpdateMillis = timeMillis;
+        }
+        public long millisecondsUntilNextUpdate() {
+            return Math.max(0L, nextUpdateMillis - currentTimeMillis());
+        }
+        public StatusResult snapshot() {
+            final StatusResult current = snapshot;
+            final long currentVersion = version;
+            if (null != current && current.version() == currentVersion) {
+                return current;
+            }
+            
+            final List<TargetDetail> details = newArrayList();
+            for (int position = 0; position < slots.length(); position++) {
+                details.add(slots.get(position));
+            }
+            final StatusResult result = new StatusResult(TargetDetailGroup.of(details), currentVersion);
+            snapshot = result;
+            return result;
+        }
+    }
+    
+    private final class StatusFetcher implements Callable<TargetDetail> {
+        private final Feature feature;
+        private final TargetDigest digest;
+        private final StatusBoard previousStatus;
+        
+        public StatusFetcher(Feature feature, TargetDigest digest, StatusBoard previousStatus) {
+            this.feature = feature;
+            this.digest = digest;
+            this.previousStatus = previousStatus;
+        }
+        
+        @Override public TargetDetail call() {
+            final long startTime = currentTimeMillis();
+            try {
+                return trustedSpy.statusOf(digest.id());
+            }
+            catch (Exception e) {
+                METRICS.counter("polling.fetch.errors", labelsOf(feature)).increment();
+                LOG.error("Status fetch failed for " + digest.id().id(), e);
+            }
+            finally {
+                METRICS.histogram("polling.fetch", labelsOf(feature)).record(currentTimeMillis() - startTime);
+            }
+            final TargetDetail previous = previousStatus.statusOf(digest.id());
+            return (null == previous) ? new TargetDetail(digest.id().id(), digest.webUrl(), digest.name(), Status.UNKNOWN, 0L) : previous;
         }
     }
     
@@ -167,6 +428,4 @@ public final class PollingSpyHandler {
             }
         }
     }
-
-
 }
\ No newline at end of file
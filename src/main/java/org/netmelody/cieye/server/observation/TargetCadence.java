@@ -0,0 +1,76 @@
+package org.netmelody.cieye.server.observation;
+
+import org.netmelody.cieye.core.domain.Status;
+import org.netmelody.cieye.core.domain.TargetDetail;
+import org.netmelody.cieye.core.domain.TargetDigest;
+
+public final class TargetCadence {
+
+    private static final long IDLE_BACKOFF_DIVISOR = 12L;
+
+    private final TargetDetail observed;
+    private final long lastChangeMillis;
+    private final long observedMillis;
+    private final long nextDueMillis;
+    private final long minimumPeriodMillis;
+    private final long maximumPeriodMillis;
+
+    private TargetCadence(TargetDetail observed, long lastChangeMillis, long observedMillis,
+                          long minimumPeriodMillis, long maximumPeriodMillis) {
+        this.observed = observed;
+        this.lastChangeMillis = lastChangeMillis;
+        this.observedMillis = observedMillis;
+        this.minimumPeriodMillis = minimumPeriodMillis;
+        this.maximumPeriodMillis = Math.max(minimumPeriodMillis, maximumPeriodMillis);
+        this.nextDueMillis = observedMillis + periodFor(observed, observedMillis - lastChangeMillis);
+    }
+
+    public static TargetCadence firstObservation(TargetDetail observed, long nowMillis, long minimumPeriodMillis, long maximumPeriodMillis) {
+        return new TargetCadence(observed, nowMillis, nowMillis, minimumPeriodMillis, maximumPeriodMillis);
+    }
+
+    public TargetCadence observed(TargetDetail latest, long nowMillis) {
+        final long lastChange = changed(observed, latest) ? nowMillis : lastChangeMillis;
+        return new TargetCadence(latest, lastChange, nowMillis, minimumPeriodMillis, maximumPeriodMillis);
+    }
+
+    public long nextDueMillis() {
+        return nextDueMillis;
+    }
+
+    public long nextDueMillisFor(TargetDigest digest) {
+        return withoutStatus(digest) ? Math.min(nextDueMillis, observedMillis + minimumPeriodMillis) : nextDueMillis;
+    }
+
+    public boolean dueBy(long timeMillis, TargetDigest digest) {
+        return nextDueMillisFor(digest) <= timeMillis || contradictedBy(digest);
+    }
+
+    private long periodFor(TargetDetail target, long idleMillis) {
+        if (!target.builds().isEmpty()) {
+            return minimumPeriodMillis;
+        }
+        return Math.max(minimumPeriodMillis, Math.min(maximumPeriodMillis, idleMillis / IDLE_BACKOFF_DIVISOR));
+    }
+
+    private boolean contradictedBy(TargetDigest digest) {
+        if (null == digest || withoutStatus(digest)) {
+            return false;
+        }
+        return !outcomeOf(digest.status()).equals(outcomeOf(observed.status()));
+    }
+
+    private static boolean withoutStatus(TargetDigest digest) {
+        return null != digest && Status.UNKNOWN.equals(digest.status());
+    }
+
+    private static boolean changed(TargetDetail previous, TargetDetail latest) {
+        return !previous.status().equals(latest.status())
+            || previous.lastStartTime() != latest.lastStartTime()
+            || previous.builds().isEmpty() != latest.builds().isEmpty();
+    }
+
+    private static Status outcomeOf(Status status) {
+        return Status.UNDER_INVESTIGATION.equals(status) ? Status.BROKEN : status;
+    }
+}
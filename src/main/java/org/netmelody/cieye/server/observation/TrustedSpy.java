@@ -11,13 +11,13 @@ import org.netmelody.cieye.core.domain.TargetId;
 import org.netmelody.cieye.core.observation.CiSpy;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
 
-import static com.google.common.collect.Maps.newHashMap;
 
 public final class TrustedSpy implements CiSpy {
 
     private final CiSpy untrustedSpy;
-    private final Map<TargetId, TargetDigest> emptyFeatureTargets = newHashMap();
+    private final Map<TargetId, TargetDigest> emptyFeatureTargets = new MapMaker().makeMap();
 
     public TrustedSpy(CiSpy untrustedSpy) {
         this.untrustedSpy = untrustedSpy;
@@ -0,0 +1,62 @@
+package org.netmelody.cieye.server.observation.protocol;
+
+import org.netmelody.cieye.core.observation.AsyncContact;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.JsonElement;
+
+public final class AsyncJsonRestRequester implements AsyncContact {
+
+    private final JsonRestRequester contact;
+    private final AsyncRestRequester channel;
+
+    public AsyncJsonRestRequester(JsonRestRequester contact, AsyncRestRequester channel) {
+        this.contact = contact;
+        this.channel = channel;
+    }
+
+    @Override
+    public <T> ListenableFuture<T> makeAsyncJsonRestCall(final String url, final Class<T> type) {
+        return Futures.transform(channel.doGet(url, contact.parserFor(type)), new Function<T, T>() {
+            @Override public T apply(T result) {
+                return JsonRestRequester.orEmpty(url, type, result);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<JsonElement> makeAsyncJsonRestCall(String url) {
+        return Futures.transform(channel.doGet(url, contact.treeParser()), new Function<JsonElement, JsonElement>() {
+            @Override public JsonElement apply(JsonElement result) {
+                return JsonRestRequester.orEmpty(result);
+            }
+        });
+    }
+
+    @Override
+    public <T> T makeJsonRestCall(String url, Class<T> type) {
+        return contact.makeJsonRestCall(url, type);
+    }
+
+    @Override
+    public JsonElement makeJsonRestCall(String url) {
+        return contact.makeJsonRestCall(url);
+    }
+
+    @Override
+    public boolean privileged() {
+        return contact.privileged();
+    }
+
+    @Override
+    public void doPost(String url) {
+        contact.doPost(url);
+    }
+
+    @Override
+    public void doPut(String url, String content) {
+        contact.doPut(url, content);
+    }
+}
@@ -0,0 +1,114 @@
+package org.netmelody.cieye.server.observation.protocol;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.AuthCache;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.netmelody.cieye.core.logging.LogKeeper;
+import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.server.observation.protocol.ResponseCache.CachedResponse;
+import org.netmelody.cieye.server.observation.protocol.RestRequester.CachingResponseHandler;
+import org.netmelody.cieye.server.observation.protocol.RestRequester.SingleAuthCache;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+public final class AsyncRestRequester {
+
+    private static final Logbook LOG = LogKeeper.logbookFor(AsyncRestRequester.class);
+
+    private final CloseableHttpAsyncClient client;
+    private final CredentialsProvider credsProvider = new BasicCredentialsProvider();
+    private final AuthCache authCache = new SingleAuthCache(new BasicScheme());
+    private final ResponseCache cache;
+    private final CircuitBreakers breakers;
+
+    public AsyncRestRequester(CloseableHttpAsyncClient client, String username, String password, ResponseCache cache, CircuitBreakers breakers) {
+        this.client = client;
+        this.cache = cache;
+        this.breakers = breakers;
+        if (!username.isEmpty()) {
+            credsProvider.setCredentials(new AuthScope(null, -1), new UsernamePasswordCredentials(username, password));
+        }
+    }
+
+    public <T> ListenableFuture<T> doGet(final String url, ContentParser<T> parser) {
+        LOG.info(url);
+        final CircuitBreaker breaker = breakers.breakerFor(url);
+        final long startTime = System.currentTimeMillis();
+        if (!breaker.permitsRequestAt(startTime)) {
+            RestRequester.rejected("GET", url);
+            return Futures.immediateFuture(null);
+        }
+
+        final HttpGet httpget = new HttpGet(url);
+        httpget.setHeader("Accept", "application/json");
+
+        final CachedResponse cached = cache.lookup(url, parser.type());
+        if (null != cached && null != cached.entityTag()) {
+            httpget.setHeader("If-None-Match", cached.entityTag());
+        }
+        if (null != cached && null != cached.lastModified()) {
+            httpget.setHeader("If-Modified-Since", cached.lastModified());
+        }
+
+        final CachingResponseHandler<T> handler = new CachingResponseHandler<T>(url, cache, cached, parser);
+        final SettableFuture<T> result = SettableFuture.create();
+        client.execute(httpget, newContext(), new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                Exception failure = null;
+                T content = null;
+                try {
+                    content = handler.handleResponse(response);
+                }
+                catch (HttpResponseException e) {
+                    failure = e;
+                    if (e.getStatusCode() == 404) {
+                        LOG.info(url + " - 404 Not Found", e);
+                    }
+                    else {
+                        LOG.error(url, e);
+                    }
+                }
+                catch (Exception e) {
+                    failure = e;
+                    LOG.error(url, e);
+                }
+                finally {
+                    RestRequester.recordExchange("GET", url, startTime, breaker, failure);
+                }
+                result.set(content);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                LOG.error(url, e);
+                RestRequester.recordExchange("GET", url, startTime, breaker, e);
+                result.set(null);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private HttpClientContext newContext() {
+        final HttpClientContext context = HttpClientContext.create();
+        context.setCredentialsProvider(credsProvider);
+        context.setAuthCache(authCache);
+        return context;
+    }
+}
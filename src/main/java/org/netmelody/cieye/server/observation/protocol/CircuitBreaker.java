@@ -0,0 +1,78 @@
+package org.netmelody.cieye.server.observation.protocol;
+
+import org.netmelody.cieye.core.logging.LogKeeper;
+import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.core.logging.Metrics;
+
+public final class CircuitBreaker {
+
+    private static final Logbook LOG = LogKeeper.logbookFor(CircuitBreaker.class);
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String host;
+    private final int failureThreshold;
+    private final long initialOpenMillis;
+    private final long maximumOpenMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openMillis;
+    private long retryAtMillis;
+
+    public CircuitBreaker(String host, int failureThreshold, long initialOpenMillis, long maximumOpenMillis) {
+        this.host = host;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.initialOpenMillis = initialOpenMillis;
+        this.maximumOpenMillis = Math.max(initialOpenMillis, maximumOpenMillis);
+        this.openMillis = initialOpenMillis;
+    }
+
+    public synchronized boolean permitsRequestAt(long nowMillis) {
+        if (State.CLOSED == state) {
+            return true;
+        }
+        if (nowMillis < retryAtMillis) {
+            return false;
+        }
+        state = State.HALF_OPEN;
+        retryAtMillis = nowMillis + openMillis;
+        LOG.info("Probing " + host + " after " + consecutiveFailures + " consecutive failures");
+        return true;
+    }
+
+    public synchronized boolean unavailableAt(long nowMillis) {
+        return State.CLOSED != state && nowMillis < retryAtMillis;
+    }
+
+    public synchronized boolean closed() {
+        return State.CLOSED == state;
+    }
+
+    public synchronized void succeeded() {
+        if (State.CLOSED != state) {
+            LOG.info("Circuit to " + host + " closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        openMillis = initialOpenMillis;
+    }
+
+    public synchronized void failedAt(long nowMillis) {
+        consecutiveFailures++;
+        if (State.HALF_OPEN == state) {
+            openMillis = Math.min(maximumOpenMillis, openMillis * 2L);
+            open(nowMillis);
+        }
+        else if (State.CLOSED == state && consecutiveFailures >= failureThreshold) {
+            open(nowMillis);
+        }
+    }
+
+    private void open(long nowMillis) {
+        state = State.OPEN;
+        retryAtMillis = nowMillis + openMillis;
+        Metrics.registry().counter("http.client.circuit.opened", "host", host).increment();
+        LOG.warn("Circuit to " + host + " opened for " + openMillis + "ms after " + consecutiveFailures + " consecutive failures");
+    }
+}
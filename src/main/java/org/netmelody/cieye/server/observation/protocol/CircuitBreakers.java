@@ -0,0 +1,52 @@
+package org.netmelody.cieye.server.observation.protocol;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.MapMaker;
+
+public final class CircuitBreakers {
+
+    private static final int FAILURE_THRESHOLD = Integer.getInteger("cieye.http.breaker.failureThreshold", 3);
+    private static final long OPEN_MILLIS = Long.getLong("cieye.http.breaker.openMillis", 15000L);
+    private static final long MAXIMUM_OPEN_MILLIS = Long.getLong("cieye.http.breaker.maximumOpenMillis", 300000L);
+
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new MapMaker().makeMap();
+    private final int failureThreshold;
+    private final long openMillis;
+    private final long maximumOpenMillis;
+
+    public CircuitBreakers() {
+        this(FAILURE_THRESHOLD, OPEN_MILLIS, MAXIMUM_OPEN_MILLIS);
+    }
+
+    public CircuitBreakers(int failureThreshold, long openMillis, long maximumOpenMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.maximumOpenMillis = maximumOpenMillis;
+    }
+
+    public CircuitBreaker breakerFor(String url) {
+        final String host = hostOf(url);
+        final CircuitBreaker breaker = breakers.get(host);
+        if (null != breaker) {
+            return breaker;
+        }
+        final CircuitBreaker candidate = new CircuitBreaker(host, failureThreshold, openMillis, maximumOpenMillis);
+        final CircuitBreaker existing = breakers.putIfAbsent(host, candidate);
+        return (null == existing) ? candidate : existing;
+    }
+
+    public static String hostOf(String url) {
+        if (null == url) {
+            return "unknown";
+        }
+        try {
+            final String authority = URI.create(url).getRawAuthority();
+            return (null == authority) ? "unknown" : authority.substring(authority.lastIndexOf('@') + 1);
+        }
+        catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+}
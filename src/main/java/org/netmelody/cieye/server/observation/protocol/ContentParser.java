@@ -0,0 +1,12 @@
+package org.netmelody.cieye.server.observation.protocol;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public interface ContentParser<T> {
+
+    Class<T> type();
+
+    T parse(Reader content) throws IOException;
+
+}
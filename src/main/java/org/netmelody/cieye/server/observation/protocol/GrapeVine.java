@@ -6,10 +6,12 @@ public interface GrapeVine {
 
     String doGet(String url);
 
+    <T> T doGet(String url, ContentParser<T> parser);
+
     void doPost(String url);
 
     void doPut(String url, String content);
 
     void shutdown();
 
-}
\ No newline at end of file
+}
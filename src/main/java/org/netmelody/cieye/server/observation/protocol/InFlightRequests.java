@@ -0,0 +1,58 @@
+package org.netmelody.cieye.server.observation.protocol;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.netmelody.cieye.core.logging.Counter;
+import org.netmelody.cieye.core.logging.Metrics;
+
+import com.google.common.collect.MapMaker;
+
+public final class InFlightRequests {
+
+    private static final Counter ALL_COALESCED = Metrics.registry().counter("http.client.coalesced");
+
+    private final ConcurrentMap<Object, FutureTask<?>> inFlight = new MapMaker().makeMap();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public <T> T fetch(Object key, Class<T> type, Callable<T> exchange) throws Exception {
+        final FutureTask<T> exchangeTask = new FutureTask<T>(exchange);
+        final FutureTask<?> existing = inFlight.putIfAbsent(key, exchangeTask);
+        if (null != existing) {
+            coalesced.incrementAndGet();
+            ALL_COALESCED.increment();
+            return type.cast(outcomeOf(existing));
+        }
+
+        try {
+            exchangeTask.run();
+            return outcomeOf(exchangeTask);
+        }
+        finally {
+            inFlight.remove(key, exchangeTask);
+        }
+    }
+
+    public long coalescedCount() {
+        return coalesced.get();
+    }
+
+    private static <T> T outcomeOf(FutureTask<T> exchange) throws Exception {
+        try {
+            return exchange.get();
+        }
+        catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw e;
+        }
+    }
+}
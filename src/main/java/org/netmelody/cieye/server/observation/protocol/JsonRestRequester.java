@@ -1,15 +1,21 @@
 package org.netmelody.cieye.server.observation.protocol;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.Callable;
+
 import org.netmelody.cieye.core.logging.LogKeeper;
 import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.core.observation.CodeBook;
 import org.netmelody.cieye.core.observation.Contact;
 
 import com.google.common.base.Function;
-import com.google.common.base.Functions;
+import com.google.common.collect.ImmutableList;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 
 public final class JsonRestRequester implements Contact {
 
@@ -17,16 +23,32 @@ public final class JsonRestRequester implements Contact {
 
     private final Gson json;
     private final GrapeVine channel;
-    private final Function<String, String> contentMunger;
+    private final Function<Reader, Reader> contentMunger;
+    private final InFlightRequests inFlightRequests;
+    private final CodeBook codeBook;
 
     public JsonRestRequester(Gson jsonTranslator) {
-        this(jsonTranslator, Functions.<String>identity(), new RestRequester("", ""));
+        this(new RestRequester("", ""), jsonTranslator, new CodeBook(), new InFlightRequests());
     }
 
     public JsonRestRequester(Gson jsonTranslator, Function<String, String> contentMunger, GrapeVine channel) {
+        this(channel, jsonTranslator, new CodeBook().withRawContentMunger(contentMunger), new InFlightRequests());
+    }
+
+    public JsonRestRequester(CodeBook codeBook, GrapeVine channel) {
+        this(codeBook, channel, new InFlightRequests());
+    }
+
+    public JsonRestRequester(CodeBook codeBook, GrapeVine channel, InFlightRequests inFlightRequests) {
+        this(channel, codeBook.decoder(), codeBook, inFlightRequests);
+    }
+
+    private JsonRestRequester(GrapeVine channel, Gson jsonTranslator, CodeBook codeBook, InFlightRequests inFlightRequests) {
         this.channel = channel;
         this.json = jsonTranslator;
-        this.contentMunger = contentMunger;
+        this.contentMunger = codeBook.streamingContentMunger();
+        this.inFlightRequests = inFlightRequests;
+        this.codeBook = codeBook;
     }
 
     @Override
@@ -37,44 +59,27 @@ public final class JsonRestRequester implements Contact {
     @Override
     public <T> T makeJsonRestCall(String url, Class<T> type) {
         T result = null;
-        String content = "";
         try {
-            content = contentMunger.apply(channel.doGet(url));
-            result = json.fromJson(content, type);
+            result = coalesced(url, type, parserFor(type));
         }
         catch (Exception e) {
-            LOG.error(String.format("Failed to parse json from (%s) of:\n %s", url, content), e);
+            LOG.error(String.format("Failed to parse json from (%s)", url), e);
         }
-        
-        if (null == result) {
-            if (null == content || content.isEmpty()) {
-                LOG.warn("null result for json request: " + url);
-            }
-            try {
-                result = type.newInstance();
-            }
-            catch (Exception e) {
-                LOG.error("Failed to instantiate " + type.getName(), e);
-            }
-        }
-        
-        return result;
+        return orEmpty(url, type, result);
     }
 
     @Override
     public JsonElement makeJsonRestCall(String url) {
-        String content = null;
         JsonElement result = null;
         try {
-            content = contentMunger.apply(channel.doGet(url));
-            result = new JsonParser().parse(content);
+            result = coalesced(url, JsonElement.class, treeParser());
         }
         catch (Exception e) {
-            LOG.error(String.format("Failed to parse json from (%s) of:\n %s", url, content), e);
+            LOG.error(String.format("Failed to parse json from (%s)", url), e);
         }
-        return (result == null) ? JsonNull.INSTANCE : result; 
+        return orEmpty(result);
     }
-    
+
     @Override
     public void doPost(String url) {
         channel.doPost(url);
@@ -88,4 +93,53 @@ public final class JsonRestRequester implements Contact {
     public void shutdown() {
         channel.shutdown();
     }
+
+    private <T> T coalesced(final String url, Class<T> type, final ContentParser<T> parser) throws Exception {
+        return inFlightRequests.fetch(ImmutableList.of(codeBook, type, url), type, new Callable<T>() {
+            @Override public T call() {
+                return channel.doGet(url, parser);
+            }
+        });
+    }
+
+    <T> ContentParser<T> parserFor(final Class<T> type) {
+        return new ContentParser<T>() {
+            @Override public Class<T> type() { return type; }
+            @Override public T parse(Reader content) throws IOException {
+                return json.fromJson(jsonReaderFor(content), type);
+            }
+        };
+    }
+
+    ContentParser<JsonElement> treeParser() {
+        return new ContentParser<JsonElement>() {
+            @Override public Class<JsonElement> type() { return JsonElement.class; }
+            @Override public JsonElement parse(Reader content) throws IOException {
+                return new JsonParser().parse(jsonReaderFor(content));
+            }
+        };
+    }
+
+    static <T> T orEmpty(String url, Class<T> type, T result) {
+        if (null != result) {
+            return result;
+        }
+
+        LOG.warn("null result for json request: " + url);
+        try {
+            return type.newInstance();
+        }
+        catch (Exception e) {
+            LOG.error("Failed to instantiate " + type.getName(), e);
+        }
+        return null;
+    }
+
+    static JsonElement orEmpty(JsonElement result) {
+        return (result == null) ? JsonNull.INSTANCE : result;
+    }
+
+    private JsonReader jsonReaderFor(Reader content) {
+        return new JsonReader(contentMunger.apply(content));
+    }
 }
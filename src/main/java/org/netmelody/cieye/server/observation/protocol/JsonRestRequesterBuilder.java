@@ -1,14 +1,91 @@
 package org.netmelody.cieye.server.observation.protocol;
 
+import java.io.IOException;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.netmelody.cieye.core.logging.LogKeeper;
+import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.core.observation.Archive;
+import org.netmelody.cieye.core.observation.Archivist;
 import org.netmelody.cieye.core.observation.CodeBook;
 import org.netmelody.cieye.core.observation.CommunicationNetwork;
 import org.netmelody.cieye.core.observation.Contact;
+import org.netmelody.cieye.core.observation.ForgetfulArchive;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public final class JsonRestRequesterBuilder implements CommunicationNetwork, Archivist {
+
+    private static final Logbook LOG = LogKeeper.logbookFor(JsonRestRequesterBuilder.class);
+
+    private final CloseableHttpAsyncClient transport;
+    private final Archive archive;
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+    private final CircuitBreakers circuitBreakers = new CircuitBreakers();
+
+    public JsonRestRequesterBuilder() {
+        this(null);
+    }
+
+    public JsonRestRequesterBuilder(CloseableHttpAsyncClient transport) {
+        this(transport, new ForgetfulArchive());
+    }
 
-public final class JsonRestRequesterBuilder implements CommunicationNetwork {
+    public JsonRestRequesterBuilder(CloseableHttpAsyncClient transport, Archive archive) {
+        this.transport = transport;
+        this.archive = archive;
+    }
+
+    public static JsonRestRequesterBuilder asynchronous(int ioThreads) {
+        final CloseableHttpAsyncClient transport = HttpAsyncClients.custom()
+                .setMaxConnTotal(200)
+                .setMaxConnPerRoute(20)
+                .setDefaultRequestConfig(RequestConfig.custom().setSocketTimeout(30000).build())
+                .setDefaultIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(ioThreads).build())
+                .setThreadFactory(new ThreadFactoryBuilder().setNameFormat("HttpTransport-%d").setDaemon(true).build())
+                .build();
+        transport.start();
+        return new JsonRestRequesterBuilder(transport);
+    }
+
+    public JsonRestRequesterBuilder archivingTo(Archive archive) {
+        return new JsonRestRequesterBuilder(transport, archive);
+    }
 
     @Override
     public Contact makeContact(CodeBook codeBook) {
-        return new JsonRestRequester(codeBook.decoder(), codeBook.contentMunger(),
-                                     new RestRequester(codeBook.username(), codeBook.password()));
+        final ResponseCache cache = new ResponseCache();
+        final JsonRestRequester contact = new JsonRestRequester(codeBook, new RestRequester(codeBook.username(), codeBook.password(), cache, circuitBreakers), inFlightRequests);
+        if (null == transport) {
+            return contact;
+        }
+        return new AsyncJsonRestRequester(contact, new AsyncRestRequester(transport, codeBook.username(), codeBook.password(), cache, circuitBreakers));
+    }
+
+    public void shutdown() {
+        if (null != transport) {
+            try {
+                transport.close();
+            }
+            catch (IOException e) {
+                LOG.error("error shutting down", e);
+            }
+        }
+    }
+
+    public InFlightRequests inFlightRequests() {
+        return inFlightRequests;
+    }
+
+    public CircuitBreakers circuitBreakers() {
+        return circuitBreakers;
+    }
+
+    @Override
+    public Archive archive() {
+        return archive;
     }
-}
\ No newline at end of file
+}
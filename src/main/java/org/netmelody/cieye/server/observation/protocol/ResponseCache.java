@@ -0,0 +1,86 @@
+package org.netmelody.cieye.server.observation.protocol;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.netmelody.cieye.core.logging.Counter;
+import org.netmelody.cieye.core.logging.Metrics;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+public final class ResponseCache {
+
+    private static final long MAXIMUM_ENTRIES = Long.getLong("cieye.http.cache.maxEntries", 2000L);
+    private static final Counter ALL_HITS = Metrics.registry().counter("http.client.cache.hits");
+    private static final Counter ALL_MISSES = Metrics.registry().counter("http.client.cache.misses");
+    private static final Counter ALL_NOT_MODIFIED = Metrics.registry().counter("http.client.cache.notModified");
+
+    // parsed responses are handed to every caller that revalidates them, so callers must treat them as read-only
+    private final Cache<String, CachedResponse> responses = CacheBuilder.newBuilder().maximumSize(MAXIMUM_ENTRIES).build();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    public CachedResponse lookup(String url, Class<?> type) {
+        final CachedResponse cached = responses.getIfPresent(url);
+        final CachedResponse response = (null != cached && type.isInstance(cached.parsed)) ? cached : null;
+        if (null == response) {
+            misses.incrementAndGet();
+            ALL_MISSES.increment();
+        }
+        else {
+            hits.incrementAndGet();
+            ALL_HITS.increment();
+        }
+        return response;
+    }
+
+    public <T> T notModified(CachedResponse response, Class<T> type) {
+        if (null == response || !type.isInstance(response.parsed)) {
+            return null;
+        }
+        notModified.incrementAndGet();
+        ALL_NOT_MODIFIED.increment();
+        return type.cast(response.parsed);
+    }
+
+    public void store(String url, String entityTag, String lastModified, Object parsed) {
+        if (null == parsed || (null == entityTag && null == lastModified)) {
+            responses.invalidate(url);
+            return;
+        }
+        responses.put(url, new CachedResponse(entityTag, lastModified, parsed));
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long notModifiedCount() {
+        return notModified.get();
+    }
+
+    public static final class CachedResponse {
+        private final String entityTag;
+        private final String lastModified;
+        private final Object parsed;
+
+        private CachedResponse(String entityTag, String lastModified, Object parsed) {
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+            this.parsed = parsed;
+        }
+
+        public String entityTag() {
+            return entityTag;
+        }
+
+        public String lastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package org.netmelody.cieye.server.observation.protocol;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
 
+import org.apache.http.Consts;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
 import org.apache.http.auth.AuthScheme;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
@@ -17,27 +25,50 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.auth.BasicScheme;
 import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.client.BasicResponseHandler;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.netmelody.cieye.core.logging.LogKeeper;
 import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.core.logging.Metrics;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
+import org.netmelody.cieye.server.observation.protocol.ResponseCache.CachedResponse;
+
+import com.google.common.io.CharStreams;
 
 public final class RestRequester implements GrapeVine {
 
     private static final Logbook LOG = LogKeeper.logbookFor(RestRequester.class);
+    private static final MetricsRegistry METRICS = Metrics.registry();
+
+    private static final ContentParser<String> TEXT = new ContentParser<String>() {
+        @Override public Class<String> type() { return String.class; }
+        @Override public String parse(Reader content) throws IOException { return CharStreams.toString(content); }
+    };
 
     private final boolean privileged;
     private final CloseableHttpClient client;
-    private final HttpClientContext context;
+    private final AuthCache authCache = new SingleAuthCache(new BasicScheme());
+    private final ResponseCache cache;
+    private final CircuitBreakers breakers;
 
     public RestRequester(String username, String password) {
-        privileged = !username.isEmpty();
+        this(username, password, new ResponseCache());
+    }
+
+    public RestRequester(String username, String password, ResponseCache cache) {
+        this(username, password, cache, new CircuitBreakers());
+    }
+
+    public RestRequester(String username, String password, ResponseCache cache, CircuitBreakers breakers) {
+        this.privileged = !username.isEmpty();
+        this.cache = cache;
+        this.breakers = breakers;
 
         final PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
         connManager.setMaxTotal(200);
@@ -52,8 +83,6 @@ public final class RestRequester implements GrapeVine {
                                      .setDefaultRequestConfig(requestConfig)
                                      .setDefaultCredentialsProvider(credsProvider)
                                      .build();
-        context = HttpClientContext.create();
-        context.setAuthCache(new SingleAuthCache(new BasicScheme()));
     }
 
     @Override
@@ -63,50 +92,139 @@ public final class RestRequester implements GrapeVine {
 
     @Override
     public String doGet(String url) {
+        final String content = doGet(url, TEXT);
+        return (null == content) ? "" : content;
+    }
+
+    @Override
+    public <T> T doGet(String url, ContentParser<T> parser) {
         LOG.info(url);
+        final CircuitBreaker breaker = breakers.breakerFor(url);
+        final long startTime = System.currentTimeMillis();
+        if (!breaker.permitsRequestAt(startTime)) {
+            rejected("GET", url);
+            return null;
+        }
+        Exception failure = null;
         try {
             final HttpGet httpget = new HttpGet(url);
             httpget.setHeader("Accept", "application/json");
+            
+            final CachedResponse cached = cache.lookup(url, parser.type());
+            if (null != cached && null != cached.entityTag()) {
+                httpget.setHeader("If-None-Match", cached.entityTag());
+            }
+            if (null != cached && null != cached.lastModified()) {
+                httpget.setHeader("If-Modified-Since", cached.lastModified());
+            }
 
-            final ResponseHandler<String> responseHandler = new BasicResponseHandler();
-            return client.execute(httpget, responseHandler, context);
+            return client.execute(httpget, new CachingResponseHandler<T>(url, cache, cached, parser), newContext());
         }
         catch (HttpResponseException e) {
+            failure = e;
             if (e.getStatusCode() == 404) {
                 LOG.info(url + " - 404 Not Found", e);
-                return "";
+                return null;
             }
             LOG.error(url, e);
         }
         catch (Exception e) {
+            failure = e;
             LOG.error(url, e);
         }
-        return "";
+        finally {
+            recordExchange("GET", url, startTime, breaker, failure);
+        }
+        return null;
     }
 
     @Override
     public void doPost(String url) {
         LOG.info(url);
+        final CircuitBreaker breaker = breakers.breakerFor(url);
+        final long startTime = System.currentTimeMillis();
+        if (!breaker.permitsRequestAt(startTime)) {
+            rejected("POST", url);
+            return;
+        }
+        Exception failure = null;
         try {
-            client.execute(new HttpPost(url), new ConsumingResponseHandler(), context);
+            client.execute(new HttpPost(url), new ConsumingResponseHandler(), newContext());
         }
         catch (Exception e) {
+            failure = e;
             LOG.error(url, e);
         }
+        finally {
+            recordExchange("POST", url, startTime, breaker, failure);
+        }
     }
 
     @Override
     public void doPut(String url, String content) {
         LOG.info(url);
+        final CircuitBreaker breaker = breakers.breakerFor(url);
+        final long startTime = System.currentTimeMillis();
+        if (!breaker.permitsRequestAt(startTime)) {
+            rejected("PUT", url);
+            return;
+        }
+        Exception failure = null;
         try {
             final HttpPut put = new HttpPut(url);
             put.setEntity(new StringEntity(content));
             
-            client.execute(put, new ConsumingResponseHandler(), context);
+            client.execute(put, new ConsumingResponseHandler(), newContext());
         }
         catch (Exception e) {
+            failure = e;
             LOG.error(url, e);
         }
+        finally {
+            recordExchange("PUT", url, startTime, breaker, failure);
+        }
+    }
+
+    static void rejected(String method, String url) {
+        LOG.warn(url + " - not requested, circuit open");
+        METRICS.counter("http.client.rejected", "host", CircuitBreakers.hostOf(url), "method", method).increment();
+    }
+
+    static void recordExchange(String method, String url, long startTime, CircuitBreaker breaker, Exception failure) {
+        final long endTime = System.currentTimeMillis();
+        if (null != failure && signalsUnreachable(failure)) {
+            breaker.failedAt(endTime);
+        }
+        else {
+            breaker.succeeded();
+        }
+        
+        final String host = CircuitBreakers.hostOf(url);
+        METRICS.counter("http.client.requests", "host", host, "method", method).increment();
+        METRICS.histogram("http.client.latency", "host", host, "method", method).record(endTime - startTime);
+        if (null != failure) {
+            METRICS.counter("http.client.errors", "host", host, "method", method, "reason", reasonFor(failure)).increment();
+        }
+    }
+
+    private static boolean signalsUnreachable(Exception failure) {
+        if (failure instanceof HttpResponseException) {
+            return ((HttpResponseException)failure).getStatusCode() >= 500;
+        }
+        return failure instanceof IOException || failure.getCause() instanceof IOException;
+    }
+
+    private static String reasonFor(Exception failure) {
+        if (failure instanceof HttpResponseException) {
+            return Integer.toString(((HttpResponseException)failure).getStatusCode());
+        }
+        return failure.getClass().getSimpleName();
+    }
+
+    private HttpClientContext newContext() {
+        final HttpClientContext context = HttpClientContext.create();
+        context.setAuthCache(authCache);
+        return context;
     }
 
     @Override
@@ -120,7 +238,7 @@ public final class RestRequester implements GrapeVine {
     }
     
     public static final class SingleAuthCache implements AuthCache {
-        private AuthScheme authScheme;
+        private volatile AuthScheme authScheme;
         public SingleAuthCache(AuthScheme authScheme) { this.authScheme = authScheme; }
         @Override public void put(HttpHost host, AuthScheme authScheme) { this.authScheme = authScheme; } 
         @Override public AuthScheme get(HttpHost host) { return this.authScheme; } 
@@ -128,6 +246,58 @@ public final class RestRequester implements GrapeVine {
         @Override public void clear() { return; }
     }
     
+    public static final class CachingResponseHandler<T> implements ResponseHandler<T> {
+        private final String url;
+        private final ResponseCache cache;
+        private final CachedResponse cached;
+        private final ContentParser<T> parser;
+        public CachingResponseHandler(String url, ResponseCache cache, CachedResponse cached, ContentParser<T> parser) {
+            this.url = url;
+            this.cache = cache;
+            this.cached = cached;
+            this.parser = parser;
+        }
+        @Override
+        public T handleResponse(HttpResponse response) throws IOException {
+            final StatusLine statusLine = response.getStatusLine();
+            final HttpEntity entity = response.getEntity();
+            
+            if (statusLine.getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                EntityUtils.consume(entity);
+                final T content = cache.notModified(cached, parser.type());
+                if (null == content) {
+                    throw new HttpResponseException(statusLine.getStatusCode(), "Not modified, but nothing cached");
+                }
+                return content;
+            }
+            
+            if (statusLine.getStatusCode() >= 300) {
+                EntityUtils.consume(entity);
+                throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
+            }
+            
+            final T content;
+            try {
+                content = parser.parse(readerFor(entity));
+            }
+            finally {
+                EntityUtils.consume(entity);
+            }
+            cache.store(url, valueOf(response.getFirstHeader("ETag")), valueOf(response.getFirstHeader("Last-Modified")), content);
+            return content;
+        }
+        private static Reader readerFor(HttpEntity entity) throws IOException {
+            if (null == entity) {
+                return new StringReader("");
+            }
+            final Charset charset = ContentType.getOrDefault(entity).getCharset();
+            return new InputStreamReader(entity.getContent(), (null == charset) ? Consts.UTF_8 : charset);
+        }
+        private static String valueOf(Header header) {
+            return (null == header) ? null : header.getValue();
+        }
+    }
+    
     public static final class ConsumingResponseHandler implements ResponseHandler<String> {
         @Override
         public String handleResponse(HttpResponse response) {
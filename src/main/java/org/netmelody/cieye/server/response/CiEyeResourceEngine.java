@@ -1,19 +1,23 @@
 package org.netmelody.cieye.server.response;
 
 
+import org.netmelody.cieye.core.logging.Metrics;
 import org.netmelody.cieye.server.CiEyeNewVersionChecker;
 import org.netmelody.cieye.server.CiEyeServerInformationFetcher;
 import org.netmelody.cieye.server.CiSpyIntermediary;
 import org.netmelody.cieye.server.LandscapeFetcher;
 import org.netmelody.cieye.server.PictureFetcher;
 import org.netmelody.cieye.server.response.resource.CiEyeResource;
+import org.netmelody.cieye.server.response.resource.LandscapeStreamResource;
 import org.netmelody.cieye.server.response.responder.CiEyeVersionResponder;
 import org.netmelody.cieye.server.response.responder.DohHandler;
 import org.netmelody.cieye.server.response.responder.FileResponder;
 import org.netmelody.cieye.server.response.responder.LandscapeListResponder;
 import org.netmelody.cieye.server.response.responder.LandscapeObservationResponder;
+import org.netmelody.cieye.server.response.responder.MetricsResponder;
 import org.netmelody.cieye.server.response.responder.NotFoundResponder;
 import org.netmelody.cieye.server.response.responder.PictureResponder;
+import org.netmelody.cieye.server.response.responder.PrometheusMetricsResponder;
 import org.netmelody.cieye.server.response.responder.RedirectResponder;
 import org.netmelody.cieye.server.response.responder.SettingsLocationResponder;
 import org.netmelody.cieye.server.response.responder.SponsorResponder;
@@ -31,6 +35,9 @@ public final class CiEyeResourceEngine implements ResourceEngine {
     private final CiEyeNewVersionChecker updateChecker;
     private final RequestOriginTracker tracker;
     private final Prison prison = new Prison();
+    private final LandscapeSnapshots snapshots = new LandscapeSnapshots();
+    private final LandscapeBroadcaster broadcaster;
+    private final PrometheusMetricsResponder prometheusMetrics = new PrometheusMetricsResponder(Metrics.registry());
 
     public CiEyeResourceEngine(LandscapeFetcher landscapeFetcher, PictureFetcher pictureFetcher,
                                CiEyeServerInformationFetcher configurationFetcher,
@@ -43,10 +50,15 @@ public final class CiEyeResourceEngine implements ResourceEngine {
         this.tracker = tracker;
         this.spyIntermediary = spyIntermediary;
         this.updateChecker = updateChecker;
+        this.broadcaster = new LandscapeBroadcaster(spyIntermediary, prison, snapshots);
     }
 
     @Override
     public Resource resolve(Address target) {
+        final String[] path = target.getPath().getSegments();
+        if (path.length == 3 && "landscapes".equals(path[0]) && "landscapeobservation.stream".equals(path[2])) {
+            return new LandscapeStreamResource(landscapeFetcher.landscapeNamed(path[1]), broadcaster);
+        }
         return new CiEyeResource(route(target));
     }
 
@@ -73,6 +85,12 @@ public final class CiEyeResourceEngine implements ResourceEngine {
             if ("sponsor.json".equals(path[0])) {
                 return new SponsorResponder(tracker);
             }
+            if ("metrics.json".equals(path[0])) {
+                return new MetricsResponder(Metrics.registry());
+            }
+            if ("metrics".equals(path[0])) {
+                return prometheusMetrics;
+            }
             
             final String name = "/resources/" + path[0];
             if (null != getClass().getResource(name)) {
@@ -95,7 +113,7 @@ public final class CiEyeResourceEngine implements ResourceEngine {
         
         if (path.length == 3) {
             if ("landscapes".equals(path[0]) && "landscapeobservation.json".equals(path[2])) {
-                return new LandscapeObservationResponder(landscapeFetcher.landscapeNamed(path[1]), spyIntermediary, prison);
+                return new LandscapeObservationResponder(landscapeFetcher.landscapeNamed(path[1]), spyIntermediary, prison, snapshots);
             }
             
             if ("landscapes".equals(path[0]) && "addNote".equals(path[2])) {
@@ -18,6 +18,7 @@ public final class CiEyeResponse {
     public final long lastModified;
     public final Status status;
     public final ImmutableMap<String, String> additionalStringHeaders;
+    public final String entityTag;
 
     private final byte[] content;
 
@@ -30,18 +31,27 @@ public final class CiEyeResponse {
     }
 
     private CiEyeResponse(String contentType, byte[] content, long expiryDate, long lastModified, Status status, Map<String, String> additionalStringHeaders) {
+        this(contentType, content, expiryDate, lastModified, status, additionalStringHeaders, null);
+    }
+
+    private CiEyeResponse(String contentType, byte[] content, long expiryDate, long lastModified, Status status, Map<String, String> additionalStringHeaders, String entityTag) {
         this.contentType = contentType;
         this.content = content;
         this.expires = expiryDate;
         this.lastModified = lastModified;
         this.status = status;
         this.additionalStringHeaders = ImmutableMap.copyOf(additionalStringHeaders);
+        this.entityTag = entityTag;
     }
 
     public static CiEyeResponse withJson(String json) {
         return new CiEyeResponse("application/json; charset=utf-8", json.getBytes(Charset.forName("UTF-8")), System.currentTimeMillis(), 0L);
     }
 
+    public static CiEyeResponse withJson(byte[] utf8Json) {
+        return new CiEyeResponse("application/json; charset=utf-8", utf8Json, System.currentTimeMillis(), 0L);
+    }
+
     public static CiEyeResponse withHtml(String html) {
         return new CiEyeResponse("text/html; charset=utf-8", html.getBytes(Charset.forName("UTF-8")), System.currentTimeMillis(), 0L);
     }
@@ -56,21 +66,38 @@ public final class CiEyeResponse {
     }
 
     public CiEyeResponse expiringInMillis(long timeToLiveMillis) {
-        return new CiEyeResponse(this.contentType, this.content, System.currentTimeMillis() + timeToLiveMillis, this.lastModified);
+        return new CiEyeResponse(this.contentType, this.content, System.currentTimeMillis() + timeToLiveMillis, this.lastModified, this.status, this.additionalStringHeaders, this.entityTag);
     }
 
     public CiEyeResponse lastModified(long lastModified) {
-        return new CiEyeResponse(this.contentType, this.content, this.expires, lastModified);
+        return new CiEyeResponse(this.contentType, this.content, this.expires, lastModified, this.status, this.additionalStringHeaders, this.entityTag);
     }
 
     public CiEyeResponse withStatus(Status status) {
-        return new CiEyeResponse(this.contentType, this.content, this.expires, this.lastModified, status);
+        return new CiEyeResponse(this.contentType, this.content, this.expires, this.lastModified, status, this.additionalStringHeaders, this.entityTag);
+    }
+
+    public CiEyeResponse withEntityTag(String entityTag) {
+        return new CiEyeResponse(this.contentType, this.content, this.expires, this.lastModified, this.status, this.additionalStringHeaders, entityTag);
+    }
+
+    public boolean matches(String ifNoneMatch) {
+        if (null == entityTag || null == ifNoneMatch) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            if ("*".equals(tag) || entityTag.equals(tag) || entityTag.equals(tag.replaceFirst("^W/", ""))) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private CiEyeResponse withHeader(String header, String value) {
+    public CiEyeResponse withHeader(String header, String value) {
         final Map<String, String> newHeaders = Maps.newHashMap(this.additionalStringHeaders);
         newHeaders.put(header, value);
-        return new CiEyeResponse(this.contentType, this.content, this.expires, this.lastModified, this.status, newHeaders);
+        return new CiEyeResponse(this.contentType, this.content, this.expires, this.lastModified, this.status, newHeaders, this.entityTag);
     }
 
     public int contentLength() {
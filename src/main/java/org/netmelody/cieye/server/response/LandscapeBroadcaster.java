@@ -0,0 +1,234 @@
+package org.netmelody.cieye.server.response;
+
+import static java.lang.System.currentTimeMillis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.netmelody.cieye.core.domain.Landscape;
+import org.netmelody.cieye.core.logging.LogKeeper;
+import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.server.CiSpyIntermediary;
+import org.netmelody.cieye.server.response.responder.LandscapeObservationResponder;
+import org.simpleframework.http.Response;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public final class LandscapeBroadcaster {
+
+    private static final Logbook LOG = LogKeeper.logbookFor(LandscapeBroadcaster.class);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final long TICK_MILLIS = 500L;
+    private static final long HEARTBEAT_MILLIS = 15000L;
+    private static final byte[] HEARTBEAT = "event: heartbeat\ndata: \n\n".getBytes(UTF_8);
+    private static final int MAX_PENDING_EVENTS = Integer.getInteger("cieye.broadcast.pendingEvents", 8);
+    private static final long WRITE_TIMEOUT_MILLIS = Long.getLong("cieye.broadcast.writeTimeoutMillis", 10000L);
+
+    private final CiSpyIntermediary spyIntermediary;
+    private final Prison prison;
+    private final LandscapeSnapshots snapshots;
+    private final ConcurrentMap<String, Channel> channels = new MapMaker().makeMap();
+    private final ExecutorService writers = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("LandscapeWriter-%d")
+                                                                                                    .setDaemon(true).build());
+    private ScheduledExecutorService ticker;
+
+    public LandscapeBroadcaster(CiSpyIntermediary spyIntermediary, Prison prison, LandscapeSnapshots snapshots) {
+        this.spyIntermediary = spyIntermediary;
+        this.prison = prison;
+        this.snapshots = snapshots;
+    }
+
+    public void subscribe(Landscape landscape, Response response) throws IOException {
+        response.set("Content-Type", "text/event-stream; charset=utf-8");
+        response.set("Cache-Control", "no-cache");
+        response.set("Server", "CiEye/1.0 (Simple 4.0)");
+        response.setDate("Date", currentTimeMillis());
+        final OutputStream stream = response.getOutputStream();
+
+        synchronized (channels) {
+            Channel channel = channels.get(landscape.name());
+            if (null == channel) {
+                channel = new Channel(landscape);
+                channels.put(landscape.name(), channel);
+            }
+            channel.listeners.add(new Listener(response, stream, writers));
+        }
+        startTicking();
+    }
+
+    private synchronized void startTicking() {
+        if (null != ticker) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("LandscapeBroadcaster-%d")
+                                                                                     .setDaemon(true).build());
+        ticker.scheduleWithFixedDelay(new Runnable() {
+            @Override public void run() { tick(); }
+        }, 0L, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void tick() {
+        for (Channel channel : channels.values()) {
+            try {
+                synchronized (channels) {
+                    if (channel.listeners.isEmpty()) {
+                        channels.remove(channel.landscape.name(), channel);
+                        continue;
+                    }
+                }
+                channel.broadcast();
+            }
+            catch (Exception e) {
+                LOG.error("Failed to broadcast landscape " + channel.landscape.name(), e);
+            }
+        }
+    }
+
+    private final class Channel {
+        private final Landscape landscape;
+        private final LandscapeObservationResponder responder;
+        private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+        private LandscapeSnapshot lastSnapshot;
+        private byte[] lastEvent;
+        private long lastSentTime;
+
+        public Channel(Landscape landscape) {
+            this.landscape = landscape;
+            this.responder = new LandscapeObservationResponder(landscape, spyIntermediary, prison, snapshots);
+        }
+
+        public void broadcast() throws IOException {
+            final LandscapeSnapshot snapshot = responder.snapshot();
+            final boolean changed = null == lastSnapshot || !snapshot.entityTag().equals(lastSnapshot.entityTag());
+            byte[] update = null;
+            if (changed) {
+                final byte[] delta = (null == lastSnapshot) ? null : snapshots.deltaOf(landscape, snapshot, lastSnapshot.version());
+                lastSnapshot = snapshot;
+                lastEvent = event(snapshot.version(), jsonOf(snapshot));
+                update = (null == delta) ? lastEvent : event(snapshot.version(), delta);
+            }
+            else if (currentTimeMillis() - lastSentTime >= HEARTBEAT_MILLIS) {
+                update = HEARTBEAT;
+            }
+
+            for (Listener listener : listeners) {
+                final byte[] event = listener.primed ? update : lastEvent;
+                if (null != event && !listener.send(event)) {
+                    listeners.remove(listener);
+                }
+            }
+            if (null != update) {
+                lastSentTime = currentTimeMillis();
+            }
+        }
+    }
+
+    private static byte[] jsonOf(LandscapeSnapshot snapshot) throws IOException {
+        final ByteArrayOutputStream json = new ByteArrayOutputStream();
+        snapshot.writeJsonTo(json);
+        return json.toByteArray();
+    }
+
+    private static byte[] event(long id, byte[] data) throws IOException {
+        final ByteArrayOutputStream event = new ByteArrayOutputStream();
+        event.write(("id: " + id + "\ndata: ").getBytes(UTF_8));
+        event.write(data);
+        event.write("\n\n".getBytes(UTF_8));
+        return event.toByteArray();
+    }
+
+    private static final class Listener {
+        private final Response response;
+        private final OutputStream stream;
+        private final ExecutorService writers;
+        private final BlockingQueue<byte[]> pending = new LinkedBlockingQueue<byte[]>(MAX_PENDING_EVENTS);
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final Runnable drainer = new Runnable() {
+            @Override public void run() { drain(); }
+        };
+        private volatile long writeStartTime = 0L;
+        private boolean primed = false;
+
+        public Listener(Response response, OutputStream stream, ExecutorService writers) {
+            this.response = response;
+            this.stream = stream;
+            this.writers = writers;
+        }
+
+        public boolean send(byte[] event) {
+            if (closed.get()) {
+                return false;
+            }
+            final long writeStart = writeStartTime;
+            if (0L != writeStart && currentTimeMillis() - writeStart > WRITE_TIMEOUT_MILLIS) {
+                LOG.info("Landscape listener stalled");
+                abandon();
+                return false;
+            }
+            if (!pending.offer(event)) {
+                LOG.info("Landscape listener fell behind");
+                abandon();
+                return false;
+            }
+            primed = true;
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(drainer);
+            }
+            return true;
+        }
+
+        private void drain() {
+            try {
+                byte[] event;
+                while (!closed.get() && null != (event = pending.poll())) {
+                    writeStartTime = currentTimeMillis();
+                    stream.write(event);
+                    stream.flush();
+                    writeStartTime = 0L;
+                }
+            }
+            catch (IOException e) {
+                LOG.info("Landscape listener disconnected");
+                abandon();
+            }
+            finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                writers.execute(drainer);
+            }
+        }
+
+        private void abandon() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            pending.clear();
+            writers.execute(new Runnable() {
+                @Override public void run() {
+                    try {
+                        response.close();
+                    }
+                    catch (IOException closeFailure) {
+                        LOG.info("Failed to close landscape stream");
+                    }
+                }
+            });
+        }
+    }
+}
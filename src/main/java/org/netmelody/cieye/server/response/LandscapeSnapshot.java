@@ -0,0 +1,68 @@
+package org.netmelody.cieye.server.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapMaker;
+import com.google.common.hash.Hashing;
+
+public final class LandscapeSnapshot {
+
+    private final long version;
+    private final ImmutableList<Long> sourceVersions;
+    private final byte[] json;
+    private final String entityTag;
+    private final ImmutableMap<String, String> targets;
+    private final String dohGroup;
+    private final ConcurrentMap<Long, byte[]> deltas = new MapMaker().makeMap();
+
+    public LandscapeSnapshot(long version, List<Long> sourceVersions, byte[] json, Map<String, String> targets, String dohGroup) {
+        this.version = version;
+        this.sourceVersions = ImmutableList.copyOf(sourceVersions);
+        this.json = json;
+        this.entityTag = "\"" + Hashing.murmur3_128().hashBytes(json).toString() + "\"";
+        this.targets = ImmutableMap.copyOf(targets);
+        this.dohGroup = dohGroup;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public String entityTag() {
+        return entityTag;
+    }
+
+    public boolean isBasedOn(List<Long> versions) {
+        return sourceVersions.equals(versions);
+    }
+
+    public ImmutableMap<String, String> targets() {
+        return targets;
+    }
+
+    public String dohGroup() {
+        return dohGroup;
+    }
+
+    public byte[] deltaSince(long previousVersion) {
+        return deltas.get(previousVersion);
+    }
+
+    public void rememberDelta(long previousVersion, byte[] delta) {
+        deltas.put(previousVersion, delta);
+    }
+
+    public void writeJsonTo(OutputStream out) throws IOException {
+        out.write(json);
+    }
+
+    public CiEyeResponse toResponse() {
+        return CiEyeResponse.withJson(json).withEntityTag(entityTag).withHeader(LandscapeSnapshots.VERSION_HEADER, Long.toString(version));
+    }
+}
@@ -0,0 +1,146 @@
+package org.netmelody.cieye.server.response;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.netmelody.cieye.core.domain.Landscape;
+import org.netmelody.cieye.core.domain.LandscapeObservation;
+import org.netmelody.cieye.core.domain.TargetDetail;
+import org.netmelody.cieye.server.TargetGroupBriefing;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Striped;
+
+public final class LandscapeSnapshots {
+
+    public static final String VERSION_HEADER = "X-Landscape-Version";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int HISTORY_SIZE = 16;
+    private static final Joiner COMMA = Joiner.on(',');
+
+    private final JsonTranslator translator = new JsonTranslator();
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis());
+    private final ConcurrentMap<String, ImmutableList<LandscapeSnapshot>> histories = new MapMaker().makeMap();
+    private final Striped<Lock> locks = Striped.lock(16);
+
+    public LandscapeSnapshot snapshotOf(Landscape landscape, List<Long> sourceVersions, Supplier<LandscapeObservation> observation) {
+        if (sourceVersions.contains(TargetGroupBriefing.UNVERSIONED)) {
+            return serialise(sourceVersions, observation.get());
+        }
+
+        final LandscapeSnapshot current = latestOf(landscape);
+        if (null != current && current.isBasedOn(sourceVersions)) {
+            return current;
+        }
+
+        final Lock lock = locks.get(landscape.name());
+        lock.lock();
+        try {
+            final LandscapeSnapshot latest = latestOf(landscape);
+            if (null != latest && latest.isBasedOn(sourceVersions)) {
+                return latest;
+            }
+            final LandscapeSnapshot snapshot = serialise(sourceVersions, observation.get());
+            record(landscape, snapshot);
+            return snapshot;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public byte[] deltaOf(Landscape landscape, LandscapeSnapshot current, long previousVersion) {
+        final byte[] cachedDelta = current.deltaSince(previousVersion);
+        if (null != cachedDelta) {
+            return cachedDelta;
+        }
+
+        final ImmutableList<LandscapeSnapshot> history = histories.get(landscape.name());
+        if (null == history) {
+            return null;
+        }
+        for (LandscapeSnapshot previous : history) {
+            if (previous.version() == previousVersion) {
+                final byte[] delta = delta(previous, current);
+                current.rememberDelta(previousVersion, delta);
+                return delta;
+            }
+        }
+        return null;
+    }
+
+    private LandscapeSnapshot latestOf(Landscape landscape) {
+        final ImmutableList<LandscapeSnapshot> history = histories.get(landscape.name());
+        return (null == history) ? null : history.get(0);
+    }
+
+    private void record(Landscape landscape, LandscapeSnapshot snapshot) {
+        final ImmutableList<LandscapeSnapshot> history = histories.get(landscape.name());
+        final ImmutableList.Builder<LandscapeSnapshot> newHistory = ImmutableList.<LandscapeSnapshot>builder().add(snapshot);
+        if (null != history) {
+            newHistory.addAll(history.subList(0, Math.min(history.size(), HISTORY_SIZE - 1)));
+        }
+        histories.put(landscape.name(), newHistory.build());
+    }
+
+    private LandscapeSnapshot serialise(List<Long> sourceVersions, LandscapeObservation observation) {
+        final List<String> targetJson = Lists.newArrayList();
+        final Map<String, String> targets = Maps.newLinkedHashMap();
+        for (TargetDetail target : observation.targets()) {
+            final String json = translator.toJson(target);
+            targetJson.add(json);
+            targets.put(target.id().id(), json);
+        }
+        final String dohGroup = observation.dohReported() ? translator.toJson(observation.dohGroup()) : null;
+
+        final StringBuilder json = new StringBuilder("{\"targets\":[");
+        COMMA.appendTo(json, targetJson).append(']');
+        if (null != dohGroup) {
+            json.append(",\"dohGroup\":").append(dohGroup);
+        }
+        json.append('}');
+        return new LandscapeSnapshot(versions.incrementAndGet(), sourceVersions, json.toString().getBytes(UTF_8), targets, dohGroup);
+    }
+
+    private byte[] delta(LandscapeSnapshot previous, LandscapeSnapshot current) {
+        final List<String> added = Lists.newArrayList();
+        final List<String> changed = Lists.newArrayList();
+        final List<String> removed = Lists.newArrayList();
+        for (Entry<String, String> target : current.targets().entrySet()) {
+            final String previousJson = previous.targets().get(target.getKey());
+            if (null == previousJson) {
+                added.add(target.getValue());
+            }
+            else if (!previousJson.equals(target.getValue())) {
+                changed.add(target.getValue());
+            }
+        }
+        for (String targetId : previous.targets().keySet()) {
+            if (!current.targets().containsKey(targetId)) {
+                removed.add(translator.toJson(targetId));
+            }
+        }
+
+        final StringBuilder json = new StringBuilder("{\"version\":").append(current.version())
+                                                                     .append(",\"since\":").append(previous.version());
+        COMMA.appendTo(json.append(",\"added\":["), added).append(']');
+        COMMA.appendTo(json.append(",\"changed\":["), changed).append(']');
+        COMMA.appendTo(json.append(",\"removed\":["), removed).append(']');
+        if (null != current.dohGroup()) {
+            json.append(",\"dohGroup\":").append(current.dohGroup());
+        }
+        json.append('}');
+        return json.toString().getBytes(UTF_8);
+    }
+}
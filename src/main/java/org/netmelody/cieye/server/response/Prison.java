@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.netmelody.cieye.core.domain.Landscape;
 import org.netmelody.cieye.core.domain.Sponsor;
@@ -13,13 +14,20 @@ import com.google.common.collect.MapMaker;
 public final class Prison {
 
     private final Map<String, Set<Sponsor>> cells = new MapMaker().makeMap();
+    private final AtomicLong records = new AtomicLong();
     
     public void imprison(Collection<Sponsor> criminals, Landscape crime) {
         cells.put(crime.name(), new HashSet<Sponsor>(criminals));
+        records.incrementAndGet();
     }
     
     public void paroleAllPrisonersFor(Landscape crime) {
         cells.remove(crime.name());
+        records.incrementAndGet();
+    }
+    
+    public long recordVersion() {
+        return records.get();
     }
     
     public boolean crimeReported(Landscape crime) {
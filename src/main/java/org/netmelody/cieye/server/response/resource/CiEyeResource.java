@@ -6,6 +6,8 @@ import java.util.Map.Entry;
 import org.apache.commons.io.IOUtils;
 import org.netmelody.cieye.core.logging.LogKeeper;
 import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.core.logging.Metrics;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
 import org.netmelody.cieye.server.response.CiEyeResponder;
 import org.netmelody.cieye.server.response.CiEyeResponse;
 import org.simpleframework.http.Request;
@@ -16,6 +18,7 @@ import org.simpleframework.http.resource.Resource;
 public final class CiEyeResource implements Resource {
 
     private static final Logbook LOG = LogKeeper.logbookFor(CiEyeResource.class);
+    private static final MetricsRegistry METRICS = Metrics.registry();
     
     private final CiEyeResponder responder;
 
@@ -25,6 +28,8 @@ public final class CiEyeResource implements Resource {
     
     @Override
     public void handle(Request request, Response response) {
+        final long startTime = System.currentTimeMillis();
+        final String route = responder.getClass().getSimpleName();
         try {
             final CiEyeResponse result = responder.respond(request);
             response.set("Content-Type", result.contentType);
@@ -32,15 +37,25 @@ public final class CiEyeResource implements Resource {
             response.setDate("Date", result.date);
             response.setDate("Last-Modified", result.lastModified);
             response.setDate("Expires", result.expires);
-            response.setContentLength(result.contentLength());
-            response.setCode(result.status.getCode());
-            response.setText(result.status.getDescription());
             for (Entry<String, String> header : result.additionalStringHeaders.entrySet()) {
                 response.set(header.getKey(), header.getValue());
             }
+            if (null != result.entityTag) {
+                response.set("ETag", result.entityTag);
+                if (result.matches(request.getValue("If-None-Match"))) {
+                    response.setCode(Status.NOT_MODIFIED.getCode());
+                    response.setText(Status.NOT_MODIFIED.getDescription());
+                    response.setContentLength(0);
+                    return;
+                }
+            }
+            response.setContentLength(result.contentLength());
+            response.setCode(result.status.getCode());
+            response.setText(result.status.getDescription());
             IOUtils.copy(result.inputStream(), response.getOutputStream());
         }
         catch (Exception e) {
+            METRICS.counter("http.server.errors", "route", route).increment();
             LOG.error("Failed to respond to request for resource " + request.getPath().getPath(), e);
             response.setCode(Status.NOT_FOUND.getCode());
             response.setText(Status.NOT_FOUND.getDescription());
@@ -51,6 +66,7 @@ public final class CiEyeResource implements Resource {
             } catch (IOException e) {
                 LOG.error("Failed to close response for resource " + request.getPath().getPath(), e);
             }
+            METRICS.histogram("http.server.latency", "route", route).record(System.currentTimeMillis() - startTime);
         }
     }
 }
@@ -0,0 +1,42 @@
+package org.netmelody.cieye.server.response.resource;
+
+import java.io.IOException;
+
+import org.netmelody.cieye.core.domain.Landscape;
+import org.netmelody.cieye.core.logging.LogKeeper;
+import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.server.response.LandscapeBroadcaster;
+import org.simpleframework.http.Request;
+import org.simpleframework.http.Response;
+import org.simpleframework.http.Status;
+import org.simpleframework.http.resource.Resource;
+
+public final class LandscapeStreamResource implements Resource {
+
+    private static final Logbook LOG = LogKeeper.logbookFor(LandscapeStreamResource.class);
+
+    private final Landscape landscape;
+    private final LandscapeBroadcaster broadcaster;
+
+    public LandscapeStreamResource(Landscape landscape, LandscapeBroadcaster broadcaster) {
+        this.landscape = landscape;
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void handle(Request request, Response response) {
+        try {
+            broadcaster.subscribe(landscape, response);
+        }
+        catch (Exception e) {
+            LOG.error("Failed to open stream for resource " + request.getPath().getPath(), e);
+            response.setCode(Status.NOT_FOUND.getCode());
+            response.setText(Status.NOT_FOUND.getDescription());
+            try {
+                response.close();
+            } catch (IOException closeFailure) {
+                LOG.error("Failed to close response for resource " + request.getPath().getPath(), closeFailure);
+            }
+        }
+    }
+}
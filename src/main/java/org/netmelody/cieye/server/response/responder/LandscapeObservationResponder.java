@@ -3,6 +3,7 @@ package org.netmelody.cieye.server.response.responder;
 import static java.lang.Math.min;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.netmelody.cieye.core.domain.Feature;
 import org.netmelody.cieye.core.domain.Landscape;
@@ -11,36 +12,109 @@ import org.netmelody.cieye.server.CiSpyIntermediary;
 import org.netmelody.cieye.server.TargetGroupBriefing;
 import org.netmelody.cieye.server.response.CiEyeResponder;
 import org.netmelody.cieye.server.response.CiEyeResponse;
-import org.netmelody.cieye.server.response.JsonTranslator;
+import org.netmelody.cieye.server.response.LandscapeSnapshot;
+import org.netmelody.cieye.server.response.LandscapeSnapshots;
 import org.netmelody.cieye.server.response.Prison;
 import org.simpleframework.http.Request;
+import org.simpleframework.http.Status;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
 
 public final class LandscapeObservationResponder implements CiEyeResponder {
 
     private final CiSpyIntermediary spyIntermediary;
     private final Landscape landscape;
     private final Prison prison;
+    private final LandscapeSnapshots snapshots;
 
     public LandscapeObservationResponder(Landscape landscape, CiSpyIntermediary spyIntermediary, Prison prison) {
+        this(landscape, spyIntermediary, prison, new LandscapeSnapshots());
+    }
+
+    public LandscapeObservationResponder(Landscape landscape, CiSpyIntermediary spyIntermediary, Prison prison, LandscapeSnapshots snapshots) {
         this.landscape = landscape;
         this.spyIntermediary = spyIntermediary;
         this.prison = prison;
+        this.snapshots = snapshots;
     }
 
     @Override
     public CiEyeResponse respond(Request request) throws IOException {
-        LandscapeObservation result = new LandscapeObservation();
+        spyIntermediary.awaitFreshBriefingsOn(landscape.features());
+        final List<TargetGroupBriefing> briefings = briefings();
         long timeToLiveMillis = Long.MAX_VALUE;
-        for (Feature feature : landscape.features()) {
-            final TargetGroupBriefing briefing = spyIntermediary.briefingOn(feature);
-            result = result.add(briefing.status);
+        for (TargetGroupBriefing briefing : briefings) {
             timeToLiveMillis = min(timeToLiveMillis, briefing.millisecondsUntilNextUpdate);
         }
         
-        if (prison.crimeReported(landscape)) {
-            result = result.withDoh(prison.prisonersFor(landscape));
+        final LandscapeSnapshot snapshot = snapshotFrom(briefings);
+        final Long since = sinceVersionOf(request);
+        if (null != since) {
+            if (since.longValue() == snapshot.version()) {
+                return CiEyeResponse.withJson("").withStatus(Status.NOT_MODIFIED)
+                                    .withHeader(LandscapeSnapshots.VERSION_HEADER, Long.toString(snapshot.version()))
+                                    .expiringInMillis(timeToLiveMillis);
+            }
+            final byte[] delta = snapshots.deltaOf(landscape, snapshot, since.longValue());
+            if (null != delta) {
+                return CiEyeResponse.withJson(delta)
+                                    .withHeader(LandscapeSnapshots.VERSION_HEADER, Long.toString(snapshot.version()))
+                                    .expiringInMillis(timeToLiveMillis);
+            }
         }
-        
-        return CiEyeResponse.withJson(new JsonTranslator().toJson(result)).expiringInMillis(timeToLiveMillis);
+        return snapshot.toResponse().expiringInMillis(timeToLiveMillis);
+    }
+
+    public LandscapeSnapshot snapshot() {
+        return snapshotFrom(briefings());
+    }
+
+    private static Long sinceVersionOf(Request request) throws IOException {
+        if (null == request) {
+            return null;
+        }
+        final String since = request.getForm().get("since");
+        if (null == since) {
+            return null;
+        }
+        try {
+            return Long.valueOf(since);
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private List<TargetGroupBriefing> briefings() {
+        final List<TargetGroupBriefing> briefings = Lists.newArrayList();
+        for (Feature feature : landscape.features()) {
+            briefings.add(spyIntermediary.briefingOn(feature));
+        }
+        return briefings;
+    }
+
+    private LandscapeSnapshot snapshotFrom(List<TargetGroupBriefing> briefings) {
+        final List<Long> versions = Lists.newArrayList();
+        for (TargetGroupBriefing briefing : briefings) {
+            versions.add(briefing.version);
+        }
+        versions.add(prison.recordVersion());
+        return snapshots.snapshotOf(landscape, versions, observationFrom(briefings));
+    }
+
+    private Supplier<LandscapeObservation> observationFrom(final List<TargetGroupBriefing> briefings) {
+        return new Supplier<LandscapeObservation>() {
+            @Override public LandscapeObservation get() {
+                LandscapeObservation result = new LandscapeObservation();
+                for (TargetGroupBriefing briefing : briefings) {
+                    result = result.add(briefing.status);
+                }
+                if (prison.crimeReported(landscape)) {
+                    result = result.withDoh(prison.prisonersFor(landscape));
+                }
+                return result;
+            }
+        };
     }
 }
@@ -0,0 +1,67 @@
+package org.netmelody.cieye.server.response.responder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.netmelody.cieye.core.logging.Counter;
+import org.netmelody.cieye.core.logging.Gauge;
+import org.netmelody.cieye.core.logging.LatencyHistogram;
+import org.netmelody.cieye.core.logging.MetricName;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
+import org.netmelody.cieye.server.response.CiEyeResponder;
+import org.netmelody.cieye.server.response.CiEyeResponse;
+import org.netmelody.cieye.server.response.JsonTranslator;
+import org.simpleframework.http.Request;
+
+import com.google.common.collect.Maps;
+
+public final class MetricsResponder implements CiEyeResponder {
+
+    private final MetricsRegistry registry;
+
+    public MetricsResponder(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public CiEyeResponse respond(Request request) throws IOException {
+        final Map<String, Object> counters = Maps.newLinkedHashMap();
+        for (Entry<MetricName, Counter> counter : registry.counters().entrySet()) {
+            counters.put(counter.getKey().toString(), counter.getValue().count());
+        }
+        
+        final Map<String, Object> gauges = Maps.newLinkedHashMap();
+        for (Entry<MetricName, Gauge> gauge : registry.gauges().entrySet()) {
+            gauges.put(gauge.getKey().toString(), gauge.getValue().reading());
+        }
+        
+        final Map<String, Object> histograms = Maps.newLinkedHashMap();
+        for (Entry<MetricName, LatencyHistogram> histogram : registry.histograms().entrySet()) {
+            histograms.put(histogram.getKey().toString(), summaryOf(histogram.getValue()));
+        }
+        
+        final Map<String, Object> metrics = Maps.newLinkedHashMap();
+        metrics.put("counters", counters);
+        metrics.put("gauges", gauges);
+        metrics.put("histograms", histograms);
+        return CiEyeResponse.withJson(new JsonTranslator().toJson(metrics));
+    }
+
+    private static Map<String, Object> summaryOf(LatencyHistogram histogram) {
+        final Map<String, Long> buckets = Maps.newLinkedHashMap();
+        for (int bucket = 0; bucket < histogram.bucketCount(); bucket++) {
+            final long bound = histogram.bucketBoundMillis(bucket);
+            buckets.put((bound == Long.MAX_VALUE) ? "+Inf" : Long.toString(bound), histogram.cumulativeCountOf(bucket));
+        }
+        
+        final long count = histogram.count();
+        final Map<String, Object> summary = Maps.newLinkedHashMap();
+        summary.put("count", count);
+        summary.put("totalMillis", histogram.totalMillis());
+        summary.put("meanMillis", (count == 0L) ? 0L : histogram.totalMillis() / count);
+        summary.put("maximumMillis", histogram.maximumMillis());
+        summary.put("buckets", buckets);
+        return summary;
+    }
+}
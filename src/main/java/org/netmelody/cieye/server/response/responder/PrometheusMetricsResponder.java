@@ -0,0 +1,143 @@
+package org.netmelody.cieye.server.response.responder;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.netmelody.cieye.core.logging.Counter;
+import org.netmelody.cieye.core.logging.Gauge;
+import org.netmelody.cieye.core.logging.LatencyHistogram;
+import org.netmelody.cieye.core.logging.MetricName;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
+import org.netmelody.cieye.server.response.CiEyeResponder;
+import org.netmelody.cieye.server.response.CiEyeResponse;
+import org.simpleframework.http.Request;
+
+import com.google.common.collect.MapMaker;
+
+public final class PrometheusMetricsResponder implements CiEyeResponder {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String PREFIX = "cieye_";
+    private static final String[] UPPER_BOUNDS = upperBoundsInSeconds();
+
+    private final MetricsRegistry registry;
+    private final Map<MetricName, Series> counterSeries = new MapMaker().weakKeys().makeMap();
+    private final Map<MetricName, Series> gaugeSeries = new MapMaker().weakKeys().makeMap();
+    private final Map<MetricName, Series> histogramSeries = new MapMaker().weakKeys().makeMap();
+    private volatile int lastLength = 4096;
+
+    public PrometheusMetricsResponder(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public CiEyeResponse respond(Request request) throws IOException {
+        final StringBuilder text = new StringBuilder(lastLength + 256);
+        
+        String family = null;
+        for (Entry<MetricName, Counter> counter : registry.counters().entrySet()) {
+            final Series name = seriesOf(counterSeries, counter.getKey(), "_total");
+            family = typeLine(text, family, name.family, "counter");
+            text.append(name.sample).append(' ').append(counter.getValue().count()).append('\n');
+        }
+        
+        family = null;
+        for (Entry<MetricName, Gauge> gauge : registry.gauges().entrySet()) {
+            final Series name = seriesOf(gaugeSeries, gauge.getKey(), "");
+            family = typeLine(text, family, name.family, "gauge");
+            text.append(name.sample).append(' ').append(gauge.getValue().reading()).append('\n');
+        }
+        
+        family = null;
+        for (Entry<MetricName, LatencyHistogram> histogram : registry.histograms().entrySet()) {
+            final Series name = seriesOf(histogramSeries, histogram.getKey(), "_seconds");
+            family = typeLine(text, family, name.family, "histogram");
+            appendHistogram(text, name, histogram.getValue());
+        }
+        
+        lastLength = text.length();
+        return CiEyeResponse.forResource(text.toString().getBytes(UTF8), CONTENT_TYPE);
+    }
+
+    private static String typeLine(StringBuilder text, String previousFamily, String family, String type) {
+        if (!family.equals(previousFamily)) {
+            text.append("# TYPE ").append(family).append(' ').append(type).append('\n');
+        }
+        return family;
+    }
+
+    private static void appendHistogram(StringBuilder text, Series name, LatencyHistogram histogram) {
+        long cumulative = 0L;
+        for (int bucket = 0; bucket < histogram.bucketCount(); bucket++) {
+            cumulative = histogram.cumulativeCountOf(bucket);
+            text.append(name.bucketPrefix).append(UPPER_BOUNDS[bucket]).append("\"} ").append(cumulative).append('\n');
+        }
+        text.append(name.family).append("_sum").append(name.labels).append(' ');
+        appendSeconds(text, histogram.totalMillis());
+        text.append('\n');
+        text.append(name.family).append("_count").append(name.labels).append(' ').append(cumulative).append('\n');
+    }
+
+    private static Series seriesOf(Map<MetricName, Series> series, MetricName metric, String suffix) {
+        final Series known = series.get(metric);
+        if (null != known) {
+            return known;
+        }
+        final Series result = new Series(metric, suffix);
+        series.put(metric, result);
+        return result;
+    }
+
+    private static String[] upperBoundsInSeconds() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final String[] result = new String[histogram.bucketCount()];
+        for (int bucket = 0; bucket < result.length; bucket++) {
+            final long bound = histogram.bucketBoundMillis(bucket);
+            result[bucket] = (bound == Long.MAX_VALUE) ? "+Inf" : appendSeconds(new StringBuilder(), bound).toString();
+        }
+        return result;
+    }
+
+    private static StringBuilder appendSeconds(StringBuilder text, long millis) {
+        text.append(millis / 1000L).append('.');
+        final long fraction = millis % 1000L;
+        if (fraction < 100L) {
+            text.append('0');
+        }
+        if (fraction < 10L) {
+            text.append('0');
+        }
+        return text.append(fraction);
+    }
+
+    private static final class Series {
+        private final String family;
+        private final String labels;
+        private final String sample;
+        private final String bucketPrefix;
+
+        public Series(MetricName metric, String suffix) {
+            this.family = PREFIX + sanitised(metric.name()) + suffix;
+            
+            final StringBuilder labelText = new StringBuilder();
+            for (Entry<String, String> label : metric.labels().entrySet()) {
+                labelText.append((labelText.length() == 0) ? "" : ",")
+                         .append(sanitised(label.getKey())).append("=\"").append(escaped(label.getValue())).append('"');
+            }
+            this.labels = (labelText.length() == 0) ? "" : "{" + labelText + "}";
+            this.sample = family + labels;
+            this.bucketPrefix = family + "_bucket{" + labelText + ((labelText.length() == 0) ? "" : ",") + "le=\"";
+        }
+
+        private static String sanitised(String name) {
+            return name.replaceAll("[^a-zA-Z0-9_]", "_");
+        }
+
+        private static String escaped(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+}
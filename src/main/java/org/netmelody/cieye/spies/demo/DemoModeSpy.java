@@ -2,7 +2,6 @@ package org.netmelody.cieye.spies.demo;
 
 import static com.google.common.cache.CacheLoader.from;
 import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Maps.newHashMap;
 import static org.netmelody.cieye.core.domain.Status.UNKNOWN;
 
 import java.util.ArrayList;
@@ -25,6 +24,7 @@ import org.netmelody.cieye.spies.demo.DemoModeFakeCiServer.TargetData;
 import com.google.common.base.Function;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.MapMaker;
 
 public final class DemoModeSpy implements CiSpy {
 
@@ -47,7 +47,7 @@ public final class DemoModeSpy implements CiSpy {
         }
     }
     
-    private final Map<TargetId, TargetInfo> recognisedTargets = newHashMap();
+    private final Map<TargetId, TargetInfo> recognisedTargets = new MapMaker().makeMap();
     
     public DemoModeSpy(final KnownOffendersDirectory detective) {
         this.detective = detective;
@@ -1,31 +1,40 @@
 package org.netmelody.cieye.spies.jenkins;
 
-import static com.google.common.cache.CacheLoader.from;
-
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Callable;
 
 import org.netmelody.cieye.spies.jenkins.jsondomain.BuildDetail;
 
-import com.google.common.base.Function;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
-
 public final class BuildDetailFetcher {
 
-    private final LoadingCache<String, BuildDetail> buildDetails;
+    private final JenkinsCommunicator communicator;
+    private final BuildDetailStore store;
     
-    public BuildDetailFetcher(final JenkinsCommunicator communicator) {
-        buildDetails =
-            CacheBuilder.newBuilder()
-                 .expireAfterWrite(2, TimeUnit.SECONDS)
-                 .build(from(new Function<String, BuildDetail>() {
-                                 public BuildDetail apply(String buildUrl) {
-                                     return communicator.buildDetailsFor(buildUrl);
-                                 }
-                             }));
+    public BuildDetailFetcher(JenkinsCommunicator communicator) {
+        this(communicator, new BuildDetailStore());
+    }
+    
+    public BuildDetailFetcher(JenkinsCommunicator communicator, BuildDetailStore store) {
+        this.communicator = communicator;
+        this.store = store;
     }
     
     public BuildDetail detailsOf(String buildUrl) {
-        return buildDetails.getUnchecked(buildUrl);
+        return store.detailsOf(buildUrl, retrieving(buildUrl));
+    }
+    
+    public BuildDetail recentDetailsOf(String buildUrl) {
+        return store.recentDetailsOf(buildUrl, retrieving(buildUrl));
+    }
+    
+    public void offer(BuildDetail buildDetail) {
+        store.offer(buildDetail);
+    }
+
+    private Callable<BuildDetail> retrieving(final String buildUrl) {
+        return new Callable<BuildDetail>() {
+            @Override public BuildDetail call() {
+                return communicator.buildDetailsFor(buildUrl);
+            }
+        };
     }
 }
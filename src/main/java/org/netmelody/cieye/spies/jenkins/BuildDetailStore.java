@@ -0,0 +1,113 @@
+package org.netmelody.cieye.spies.jenkins;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.netmelody.cieye.core.logging.LogKeeper;
+import org.netmelody.cieye.core.logging.Logbook;
+import org.netmelody.cieye.core.logging.Metrics;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
+import org.netmelody.cieye.core.observation.Archive;
+import org.netmelody.cieye.core.observation.ForgetfulArchive;
+import org.netmelody.cieye.spies.jenkins.jsondomain.BuildDetail;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+public final class BuildDetailStore {
+
+    private static final Logbook LOG = LogKeeper.logbookFor(BuildDetailStore.class);
+    private static final String ARCHIVE_PREFIX = "jenkins.build:";
+    private static final Gson ARCHIVE_FORMAT = new Gson();
+    private static final MetricsRegistry METRICS = Metrics.registry();
+
+    private static final long MAXIMUM_COMPLETED_BUILDS = Integer.getInteger("cieye.jenkins.completedBuildCacheSize", 5000);
+    private static final long IN_PROGRESS_LIFETIME_SECONDS = 2L;
+
+    private final Cache<String, BuildDetail> completedBuilds =
+            CacheBuilder.newBuilder().maximumSize(MAXIMUM_COMPLETED_BUILDS).build();
+    private final Cache<String, BuildDetail> recentBuilds =
+            CacheBuilder.newBuilder().expireAfterWrite(IN_PROGRESS_LIFETIME_SECONDS, TimeUnit.SECONDS).build();
+    private final Archive archive;
+
+    public BuildDetailStore() {
+        this(new ForgetfulArchive());
+    }
+
+    public BuildDetailStore(Archive archive) {
+        this.archive = archive;
+    }
+
+    public BuildDetail detailsOf(String buildUrl, Callable<BuildDetail> source) {
+        final BuildDetail completed = completedBuilds.getIfPresent(buildUrl);
+        if (null != completed) {
+            METRICS.counter("jenkins.buildDetails.hits", "source", "memory").increment();
+            return completed;
+        }
+
+        final BuildDetail archived = retrieveArchived(buildUrl);
+        if (null != archived) {
+            METRICS.counter("jenkins.buildDetails.hits", "source", "archive").increment();
+            completedBuilds.put(buildUrl, archived);
+            return archived;
+        }
+        METRICS.counter("jenkins.buildDetails.misses").increment();
+        return recentDetailsOf(buildUrl, source);
+    }
+
+    public BuildDetail recentDetailsOf(String buildUrl, Callable<BuildDetail> source) {
+        try {
+            final BuildDetail detail = recentBuilds.get(buildUrl, source);
+            if (isComplete(detail)) {
+                complete(buildUrl, detail);
+            }
+            return detail;
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to retrieve details of build " + buildUrl, e);
+        }
+    }
+
+    public void offer(BuildDetail buildDetail) {
+        if (null == buildDetail || null == buildDetail.url) {
+            return;
+        }
+        recentBuilds.put(buildDetail.url, buildDetail);
+        if (isComplete(buildDetail)) {
+            complete(buildDetail.url, buildDetail);
+        }
+    }
+
+    public long completedBuildCount() {
+        return completedBuilds.size();
+    }
+
+    private void complete(String buildUrl, BuildDetail buildDetail) {
+        if (null != completedBuilds.getIfPresent(buildUrl)) {
+            return;
+        }
+        completedBuilds.put(buildUrl, buildDetail);
+        archive.deposit(ARCHIVE_PREFIX + buildUrl, ARCHIVE_FORMAT.toJson(buildDetail));
+    }
+
+    private BuildDetail retrieveArchived(String buildUrl) {
+        final String record = archive.retrieve(ARCHIVE_PREFIX + buildUrl);
+        if (null == record) {
+            return null;
+        }
+        try {
+            final BuildDetail archived = ARCHIVE_FORMAT.fromJson(record, BuildDetail.class);
+            return isComplete(archived) ? archived : null;
+        }
+        catch (JsonParseException e) {
+            LOG.warn("Ignoring unreadable archived build " + buildUrl);
+            return null;
+        }
+    }
+
+    private static boolean isComplete(BuildDetail buildDetail) {
+        return null != buildDetail && null != buildDetail.url && !buildDetail.building;
+    }
+}
@@ -4,7 +4,7 @@ import static com.google.common.cache.CacheLoader.from;
 
 import java.util.concurrent.ExecutionException;
 
-import org.netmelody.cieye.spies.jenkins.jsondomain.JobDetail;
+import org.netmelody.cieye.spies.jenkins.jsondomain.Job;
 
 import com.google.common.base.Function;
 import com.google.common.cache.CacheBuilder;
@@ -24,7 +24,7 @@ public final class BuildStartTimeFetcher {
                         }));
     }
     
-    public long lastStartTimeOf(final JobDetail job) {
+    public long lastStartTimeOf(final Job job) {
         if (job.lastBuild == null) {
             return 0L;
         }
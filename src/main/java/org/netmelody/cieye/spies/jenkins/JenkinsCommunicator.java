@@ -1,5 +1,7 @@
 package org.netmelody.cieye.spies.jenkins;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.util.Collection;
 
 import org.netmelody.cieye.core.domain.Feature;
@@ -13,6 +15,11 @@ import org.netmelody.cieye.spies.jenkins.jsondomain.ViewDetail;
 
 public final class JenkinsCommunicator {
 
+    private static final String BUILD_SURVEY = "number,url,building,timestamp,duration,result,description,"
+                                             + "culprits[fullName],changeSet[items[msg,user]],"
+                                             + "actions[causes[upstreamBuild,upstreamUrl],failCount]";
+    private static final String VIEW_SURVEY = "name,url,jobs[name,url,color,lastBuild[" + BUILD_SURVEY + "]]";
+
     private final Contact contact;
     private final String endpoint;
 
@@ -46,7 +53,7 @@ public final class JenkinsCommunicator {
     }
 
     public Collection<Job> jobsFor(View viewDigest) {
-        return makeJenkinsRestCall(viewDigest.url, ViewDetail.class).jobs();
+        return makeJenkinsRestCall(viewDigest.url, VIEW_SURVEY, ViewDetail.class).jobs();
     }
 
     public Collection<View> views() {
@@ -58,7 +65,19 @@ public final class JenkinsCommunicator {
     }
     
     private <T> T makeJenkinsRestCall(String url, Class<T> type) {
-        final String reqUrl = url + (url.endsWith("/") ? "" : "/") + "api/json";
-        return contact.makeJsonRestCall(reqUrl, type);
+        return contact.makeJsonRestCall(apiUrlFor(url), type);
+    }
+    
+    private <T> T makeJenkinsRestCall(String url, String tree, Class<T> type) {
+        try {
+            return contact.makeJsonRestCall(apiUrlFor(url) + "?tree=" + URLEncoder.encode(tree, "UTF-8"), type);
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String apiUrlFor(String url) {
+        return url + (url.endsWith("/") ? "" : "/") + "api/json";
     }
 }
@@ -1,22 +1,52 @@
 package org.netmelody.cieye.spies.jenkins;
 
+import java.lang.reflect.Type;
 import java.text.SimpleDateFormat;
+import java.util.concurrent.ConcurrentMap;
 
 import org.netmelody.cieye.core.domain.CiServerType;
 import org.netmelody.cieye.core.domain.Feature;
+import org.netmelody.cieye.core.observation.Archives;
 import org.netmelody.cieye.core.observation.CiSpy;
 import org.netmelody.cieye.core.observation.CodeBook;
 import org.netmelody.cieye.core.observation.CommunicationNetwork;
 import org.netmelody.cieye.core.observation.KnownOffendersDirectory;
 import org.netmelody.cieye.core.observation.ObservationAgency;
+import org.netmelody.cieye.spies.jenkins.jsondomain.Build;
+import org.netmelody.cieye.spies.jenkins.jsondomain.BuildDetail;
+
+import com.google.common.collect.MapMaker;
+import com.google.gson.Gson;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
 
 public final class JenkinsObservationAgency implements ObservationAgency {
 
+    private static final Gson PLAIN_DECODER = new Gson();
+
+    private final ConcurrentMap<String, BuildDetailStore> buildDetailStores = new MapMaker().makeMap();
+
     @Override
     public CiSpy provideSpyFor(Feature feature, CommunicationNetwork network, KnownOffendersDirectory directory) {
         final CodeBook codeBook = new CodeBook(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ"))
-                                      .withCredentials(feature.username(), feature.password());
-        return new JenkinsSpy(feature.endpoint(), directory, network.makeContact(codeBook));
+                                      .withCredentials(feature.username(), feature.password())
+                                      .withJsonDeserializerFor(Build.class, new JsonDeserializer<Build>() {
+                                          @Override public Build deserialize(JsonElement json, Type type, JsonDeserializationContext context) {
+                                              if (json.isJsonObject() && json.getAsJsonObject().has("timestamp")) {
+                                                  return context.deserialize(json, BuildDetail.class);
+                                              }
+                                              return PLAIN_DECODER.fromJson(json, Build.class);
+                                          }
+                                      });
+        return new JenkinsSpy(feature.endpoint(), directory, network.makeContact(codeBook), buildDetailStoreFor(feature, network));
+    }
+
+    private BuildDetailStore buildDetailStoreFor(Feature feature, CommunicationNetwork network) {
+        final String key = feature.endpoint() + "|" + feature.username();
+        final BuildDetailStore candidate = new BuildDetailStore(Archives.archiveOf(network));
+        final BuildDetailStore existing = buildDetailStores.putIfAbsent(key, candidate);
+        return (null == existing) ? candidate : existing;
     }
 
     @Override
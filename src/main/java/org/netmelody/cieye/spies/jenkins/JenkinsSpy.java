@@ -20,10 +20,10 @@ import org.netmelody.cieye.spies.jenkins.jsondomain.Job;
 import org.netmelody.cieye.spies.jenkins.jsondomain.View;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.MapMaker;
 
 import static com.google.common.collect.Iterables.find;
 import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Maps.newHashMap;
 
 public final class JenkinsSpy implements CiSpy {
     
@@ -32,11 +32,15 @@ public final class JenkinsSpy implements CiSpy {
     private final JenkinsCommunicator communicator;
     private final JobLaboratory laboratory;
     
-    private final Map<TargetId, Job> recognisedJobs = newHashMap();
+    private final Map<TargetId, Job> recognisedJobs = new MapMaker().makeMap();
     
     public JenkinsSpy(String endpoint, KnownOffendersDirectory detective, Contact contact) {
+        this(endpoint, detective, contact, new BuildDetailStore());
+    }
+    
+    public JenkinsSpy(String endpoint, KnownOffendersDirectory detective, Contact contact, BuildDetailStore buildDetailStore) {
         this.communicator = new JenkinsCommunicator(endpoint, contact);
-        this.laboratory = new JobLaboratory(communicator, detective);
+        this.laboratory = new JobLaboratory(communicator, detective, buildDetailStore);
     }
 
     @Override
@@ -41,10 +41,14 @@ public final class JobAnalyser {
     private final BuildStartTimeFetcher buildStartTimeFetcher;
 
     public JobAnalyser(JenkinsCommunicator communicator, String jobEndpoint, KnownOffendersDirectory detective) {
+        this(communicator, jobEndpoint, detective, new BuildDetailStore());
+    }
+    
+    public JobAnalyser(JenkinsCommunicator communicator, String jobEndpoint, KnownOffendersDirectory detective, BuildDetailStore buildDetailStore) {
         this.communicator = communicator;
         this.jobEndpoint = jobEndpoint;
         this.detective = detective;
-        this.buildDetailFetcher = new BuildDetailFetcher(this.communicator);
+        this.buildDetailFetcher = new BuildDetailFetcher(this.communicator, buildDetailStore);
         this.buildDurationFetcher = new BuildDurationFetcher(this.buildDetailFetcher);
         this.buildStartTimeFetcher = new BuildStartTimeFetcher(this.buildDetailFetcher);
     }
@@ -54,6 +58,15 @@ public final class JobAnalyser {
             throw new IllegalArgumentException("Incorrect job digest");
         }
         
+        final BuildDetail lastBuild = jobDigest.lastBuildDetail();
+        if (null != lastBuild) {
+            buildDetailFetcher.offer(lastBuild);
+            if (!jobDigest.building() && Status.BROKEN != jobDigest.status()) {
+                sponsorCache.clear();
+                return new TargetDetail(jobDigest.url, jobDigest.url, jobDigest.name, jobDigest.status(), startTimeOf(jobDigest));
+            }
+        }
+        
         final JobDetail job = communicator.jobDetailFor(jobEndpoint);
         if (!job.building() && Status.BROKEN != job.status()) {
             sponsorCache.clear();
@@ -67,7 +80,7 @@ public final class JobAnalyser {
         return communicator.lastBadBuildFor(jobEndpoint);
     }
     
-    private long startTimeOf(JobDetail job) {
+    private long startTimeOf(Job job) {
         return buildStartTimeFetcher.lastStartTimeOf(job);
     }
 
@@ -80,7 +93,7 @@ public final class JobAnalyser {
             return job.status();
         }
         
-        final String lastBadBuildDesc = this.buildDetailFetcher.detailsOf(job.lastBadBuildUrl()).description;
+        final String lastBadBuildDesc = this.buildDetailFetcher.recentDetailsOf(job.lastBadBuildUrl()).description;
         if (null == lastBadBuildDesc || lastBadBuildDesc.length() == 0) {
             return job.status();
         }
@@ -14,11 +14,17 @@ public final class JobLaboratory {
 
     private final JenkinsCommunicator communicator;
     private final KnownOffendersDirectory detective;
+    private final BuildDetailStore buildDetailStore;
     private final LoadingCache<String, JobAnalyser> analyserMap = CacheBuilder.newBuilder().build(from(toAnalysers()));
     
     public JobLaboratory(JenkinsCommunicator communicator, KnownOffendersDirectory detective) {
+        this(communicator, detective, new BuildDetailStore());
+    }
+    
+    public JobLaboratory(JenkinsCommunicator communicator, KnownOffendersDirectory detective, BuildDetailStore buildDetailStore) {
         this.communicator = communicator;
         this.detective = detective;
+        this.buildDetailStore = buildDetailStore;
     }
        
     public TargetDetail analyseJob(Job jobDigest) {
@@ -35,7 +41,7 @@ public final class JobLaboratory {
     private Function<String, JobAnalyser> toAnalysers() {
         return new Function<String, JobAnalyser>() {
             @Override public JobAnalyser apply(String jobDigestUrl) {
-                return new JobAnalyser(communicator, jobDigestUrl, detective);
+                return new JobAnalyser(communicator, jobDigestUrl, detective, buildDetailStore);
             }
         };
     }
@@ -6,6 +6,7 @@ public class Job {
     public String name;
     public String url;
     public String color;
+    public Build lastBuild;
     
     public Status status() {
         if (null == color || color.startsWith("blue")) {
@@ -20,4 +21,8 @@ public class Job {
     public boolean building() {
         return (null != color && color.endsWith("_anime"));
     }
+    
+    public BuildDetail lastBuildDetail() {
+        return (lastBuild instanceof BuildDetail) ? (BuildDetail)lastBuild : null;
+    }
 }
\ No newline at end of file
@@ -22,7 +22,6 @@ public final class JobDetail extends Job {
     public List<Build> builds;
     public List<Action> actions;
     public Build firstBuild;
-    public Build lastBuild;
     public Build lastCompletedBuild;
     public Build lastFailedBuild;
     public Build lastStableBuild;
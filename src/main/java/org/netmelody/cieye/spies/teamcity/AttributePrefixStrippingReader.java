@@ -0,0 +1,80 @@
+package org.netmelody.cieye.spies.teamcity;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+public final class AttributePrefixStrippingReader extends FilterReader {
+
+    private boolean afterQuote = false;
+
+    public AttributePrefixStrippingReader(Reader in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int c = super.read();
+        if (afterQuote && c == '@') {
+            c = super.read();
+        }
+        afterQuote = (c == '"');
+        return c;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        int count = 0;
+        while (count == 0) {
+            final int read = super.read(buffer, offset, length);
+            if (read <= 0) {
+                return read;
+            }
+            count = strip(buffer, offset, read);
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final char[] buffer = new char[(int)Math.min(n, 1024L)];
+        long skipped = 0L;
+        while (skipped < n) {
+            final int read = read(buffer, 0, (int)Math.min(n - skipped, buffer.length));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+
+    private int strip(char[] buffer, int offset, int count) {
+        int kept = offset;
+        for (int i = offset; i < offset + count; i++) {
+            final char c = buffer[i];
+            if (afterQuote && c == '@') {
+                afterQuote = false;
+                continue;
+            }
+            buffer[kept++] = c;
+            afterQuote = (c == '"');
+        }
+        return kept - offset;
+    }
+}
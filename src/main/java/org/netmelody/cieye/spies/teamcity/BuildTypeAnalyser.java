@@ -16,7 +16,7 @@ import org.netmelody.cieye.spies.teamcity.jsondomain.Build;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildDetail;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildType;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeDetail;
-import org.netmelody.cieye.spies.teamcity.jsondomain.Change;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeStatus;
 import org.netmelody.cieye.spies.teamcity.jsondomain.ChangeDetail;
 import org.netmelody.cieye.spies.teamcity.jsondomain.Investigation;
 
@@ -40,13 +40,12 @@ public final class BuildTypeAnalyser {
         final Set<Sponsor> sponsors = new HashSet<Sponsor>();
         final List<RunningBuild> runningBuilds = new ArrayList<RunningBuild>();
         long startTime = 0L;
-            
-        for(Build build : communicator.runningBuildsFor(buildType)) {
-            //buildType.name+=" build.id"+" "+build.branchName;
-            
+        
+        final List<Build> builds = communicator.runningBuildsFor(buildType);
+        for(Build build : builds) {
             final BuildDetail buildDetail = communicator.detailsOf(build);
             startTime = Math.max(buildDetail.startDateTime(), startTime);
-            sponsors.addAll(sponsorsOf(buildDetail));
+            sponsors.addAll(sponsorsOf(buildDetail, false));
             runningBuilds.add(new RunningBuild(percentageOf(build.percentageComplete), buildDetail.status()));
         }
         
@@ -58,35 +57,79 @@ public final class BuildTypeAnalyser {
             if (runningBuilds.isEmpty() || Status.BROKEN.equals(currentStatus)) {
                 final BuildDetail buildDetail = communicator.detailsOf(lastCompletedBuild);
                 startTime = Math.max(buildDetail.startDateTime(), startTime);
-                sponsors.addAll(sponsorsOf(buildDetail));
+                sponsors.addAll(sponsorsOf(buildDetail, true));
                 currentStatus = buildDetail.status();
             }
         }
         
+        if (Status.BROKEN.equals(currentStatus) && underInvestigation(communicator.investigationsOf(buildType), startTime)) {
+            currentStatus = Status.UNDER_INVESTIGATION;
+        }
+        
+        final String name = (builds.size() == 1) ? nameOf(buildType, builds.get(0).number, builds.get(0).branchName) : buildType.name;
+        return new TargetDetail(communicator.endpoint() + buildType.href, buildType.webUrl(), name, currentStatus, startTime, runningBuilds, sponsors);
+    }
+    
+    public TargetDetail targetFrom(BuildType buildType, BuildTypeStatus survey, List<BuildDetail> builds) {
+        if (survey.paused()) {
+            return new TargetDetail(communicator.endpoint() + buildType.href, buildType.webUrl(), buildType.name, Status.DISABLED, 0L);
+        }
+        
+        final Set<Sponsor> sponsors = new HashSet<Sponsor>();
+        final List<RunningBuild> runningBuilds = new ArrayList<RunningBuild>();
+        long startTime = 0L;
+        
+        for (BuildDetail build : builds) {
+            startTime = Math.max(build.startDateTime(), startTime);
+            sponsors.addAll(sponsorsOf(build, false));
+            runningBuilds.add(new RunningBuild(percentageOf(build.percentageComplete), build.status()));
+        }
+        
+        Status currentStatus = Status.UNKNOWN;
+        final BuildDetail lastCompletedBuild = survey.lastCompletedBuild();
+        if (null != lastCompletedBuild) {
+            currentStatus = lastCompletedBuild.status();
+            if (runningBuilds.isEmpty() || Status.BROKEN.equals(currentStatus)) {
+                startTime = Math.max(lastCompletedBuild.startDateTime(), startTime);
+                sponsors.addAll(sponsorsOf(lastCompletedBuild, true));
+            }
+        }
+        
         if (Status.BROKEN.equals(currentStatus)) {
-            final List<Investigation> investigations = communicator.investigationsOf(buildType);
-            if (!investigations.isEmpty() && (investigations.get(0).startDateTime() > startTime) && investigations.get(0).underInvestigation()) {
+            final List<Investigation> investigations = (null == survey.investigations) ? communicator.investigationsOf(buildType)
+                                                                                       : survey.investigations.investigation();
+            if (underInvestigation(investigations, startTime)) {
                 currentStatus = Status.UNDER_INVESTIGATION;
             }
         }
         
-        return new TargetDetail(communicator.endpoint() + buildType.href, buildType.webUrl(), buildType.name, currentStatus, startTime, runningBuilds, sponsors);
+        final String name = (builds.size() == 1) ? nameOf(buildType, builds.get(0).number, builds.get(0).branchName) : buildType.name;
+        return new TargetDetail(communicator.endpoint() + buildType.href, buildType.webUrl(), name, currentStatus, startTime, runningBuilds, sponsors);
+    }
+    
+    private static boolean underInvestigation(List<Investigation> investigations, long startTime) {
+        return !investigations.isEmpty() && (investigations.get(0).startDateTime() > startTime) && investigations.get(0).underInvestigation();
+    }
+    
+    private static String nameOf(BuildType buildType, String runningNumber, String branchName) {
+        if (null == runningNumber) {
+            return buildType.name;
+        }
+        return buildType.name + " #" + runningNumber + ((null == branchName || branchName.isEmpty()) ? "" : " " + branchName);
     }
 
-    private Set<Sponsor> sponsorsOf(BuildDetail build) {
-        return detective.search(analyseChanges(build));
+    private Set<Sponsor> sponsorsOf(BuildDetail build, boolean completed) {
+        return detective.search(analyseChanges(build, completed));
     }
 
-    private String analyseChanges(BuildDetail build) {
+    private String analyseChanges(BuildDetail build, boolean completed) {
         if (build.changes == null || build.changes.count == 0) {
             return "";
         }
         
-        final List<Change> changes = communicator.changesOf(build);
-        
+        final List<ChangeDetail> changes = completed ? communicator.detailedChangesOfCompleted(build) : communicator.detailedChangesOf(build);
         final StringBuilder result = new StringBuilder();
-        for (Change change : changes) {
-            final ChangeDetail changeDetail = communicator.detailedChangesOf(change);
+        for (ChangeDetail changeDetail : changes) {
             result.append(changeDetail.username);
             result.append(' ');
             result.append(changeDetail.comment);
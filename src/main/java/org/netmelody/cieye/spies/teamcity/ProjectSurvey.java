@@ -0,0 +1,54 @@
+package org.netmelody.cieye.spies.teamcity;
+
+import java.util.List;
+import java.util.Map;
+
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildDetail;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeStatus;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+
+public final class ProjectSurvey {
+
+    private final Map<String, BuildTypeStatus> statuses;
+    private final ListMultimap<String, BuildDetail> runningBuilds;
+    private final boolean unsupported;
+
+    public ProjectSurvey(TeamCityCommunicator communicator, String projectId) {
+        final List<BuildTypeStatus> reported = communicator.statusesOfBuildTypesIn(projectId);
+        final Map<String, BuildTypeStatus> surveyed = Maps.newHashMap();
+        for (BuildTypeStatus status : reported) {
+            if (null != status && null != status.id && status.surveyed()) {
+                surveyed.put(status.id, status);
+            }
+        }
+        this.statuses = ImmutableMap.copyOf(surveyed);
+        this.unsupported = !reported.isEmpty() && surveyed.isEmpty();
+        
+        final ImmutableListMultimap.Builder<String, BuildDetail> running = ImmutableListMultimap.builder();
+        if (!statuses.isEmpty()) {
+            for (BuildDetail build : communicator.runningBuildsIn(projectId)) {
+                if (null != build && null != build.buildTypeId) {
+                    running.put(build.buildTypeId, build);
+                }
+            }
+        }
+        this.runningBuilds = running.build();
+    }
+
+    public boolean unsupported() {
+        return unsupported;
+    }
+
+    public BuildTypeStatus statusOf(String buildTypeId) {
+        return statuses.get(buildTypeId);
+    }
+
+    public List<BuildDetail> runningBuildsOf(String buildTypeId) {
+        return ImmutableList.copyOf(runningBuilds.get(buildTypeId));
+    }
+}
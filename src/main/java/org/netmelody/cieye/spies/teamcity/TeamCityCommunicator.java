@@ -1,17 +1,27 @@
 package org.netmelody.cieye.spies.teamcity;
 
 import static com.google.common.collect.Iterables.find;
+import static java.util.Collections.unmodifiableList;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import org.netmelody.cieye.core.domain.Feature;
+import org.netmelody.cieye.core.observation.Archive;
+import org.netmelody.cieye.core.observation.AsyncContact;
 import org.netmelody.cieye.core.observation.Contact;
+import org.netmelody.cieye.core.observation.ForgetfulArchive;
 import org.netmelody.cieye.spies.teamcity.jsondomain.Build;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildDetail;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildDetails;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildType;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeDetail;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeStatus;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeStatuses;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypes;
 import org.netmelody.cieye.spies.teamcity.jsondomain.Builds;
 import org.netmelody.cieye.spies.teamcity.jsondomain.Change;
@@ -22,22 +32,49 @@ import org.netmelody.cieye.spies.teamcity.jsondomain.Project;
 import org.netmelody.cieye.spies.teamcity.jsondomain.ProjectDetail;
 import org.netmelody.cieye.spies.teamcity.jsondomain.TeamCityProjects;
 
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 
 
 public final class TeamCityCommunicator {
 
+    private static final String BUILD_SURVEY = "id,number,status,buildTypeId,href,webUrl,percentageComplete,branchName,"
+                                             + "startDate,comment(text),changes(count,href)";
+    private static final String BUILD_TYPE_SURVEY = "buildType(id,paused,"
+                                                  + "builds($locator(running:false,canceled:false,branch:default:true,count:1),build(" + BUILD_SURVEY + ")),"
+                                                  + "investigations(investigation(id,state,assignment(timestamp))))";
+    private static final String CHANGE_SURVEY = "change(id,version,href,username,comment)";
+    private static final long MAXIMUM_CACHED_CHANGES = Integer.getInteger("cieye.teamcity.changeCacheSize", 10000);
+    private static final long MAXIMUM_CACHED_BUILD_CHANGES = Integer.getInteger("cieye.teamcity.buildChangeCacheSize", 1000);
+    private static final String ARCHIVE_PREFIX = "teamcity.change:";
+    private static final Gson ARCHIVE_FORMAT = new Gson();
+
     private final Contact contact;
     private final String endpoint;
     private final String prefix;
+    private final Archive archive;
+    private final Cache<String, ChangeDetail> changeDetails = CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_CHANGES).build();
+    private final Cache<String, List<ChangeDetail>> completedBuildChanges = CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_BUILD_CHANGES).build();
 
     public TeamCityCommunicator(Contact contact, String endpoint) {
+        this(contact, endpoint, new ForgetfulArchive());
+    }
+
+    public TeamCityCommunicator(Contact contact, String endpoint, Archive archive) {
         this.contact = contact;
         this.endpoint = endpoint;
+        this.archive = archive;
         this.prefix = (contact.privileged() ? "/httpAuth" : "/guestAuth") + "/app/rest";
     }
 
@@ -82,6 +119,16 @@ public final class TeamCityCommunicator {
                 + buildType.id+",branch:default:any", Builds.class).build();
     }
 
+    public List<BuildTypeStatus> statusesOfBuildTypesIn(String projectId) {
+        return makeTeamCityRestCall(endpoint + prefix + "/buildTypes?locator=" + encode("affectedProject:(id:" + projectId + ")")
+                + "&fields=" + encode(BUILD_TYPE_SURVEY), BuildTypeStatuses.class).buildType();
+    }
+
+    public List<BuildDetail> runningBuildsIn(String projectId) {
+        return makeTeamCityRestCall(endpoint + prefix + "/builds/?locator=" + encode("running:true,branch:default:any,affectedProject:(id:" + projectId + ")")
+                + "&fields=" + encode("build(" + BUILD_SURVEY + ")"), BuildDetails.class).build();
+    }
+
     public List<Investigation> investigationsOf(BuildType buildType) {
         return makeTeamCityRestCall(endpoint + buildType.href + "/investigations", 
                 Investigations.class).investigation();
@@ -96,31 +143,163 @@ public final class TeamCityCommunicator {
     }
 
     public List<Change> changesOf(BuildDetail buildDetail) {
-        final JsonElement json = contact.makeJsonRestCall(endpoint + buildDetail.changes.href);
-        final JsonElement change = json.isJsonObject() ? json.getAsJsonObject().get("change") : JsonNull.INSTANCE;
-        
-        if (null == change || !(change.isJsonArray() || change.isJsonObject())) {
-            return ImmutableList.of();
-        }
-        
         final Gson gson = new Gson();
         final List<Change> changes = new ArrayList<Change>();
-        final Iterable<JsonElement> changesJson = change.isJsonArray() ? change.getAsJsonArray() : ImmutableList.of(change);
-        for (JsonElement jsonElement : changesJson) {
+        for (JsonElement jsonElement : changeElementsOf(contact.makeJsonRestCall(endpoint + buildDetail.changes.href))) {
             changes.add(gson.fromJson(jsonElement, Change.class));
         }
         
         return changes;
     }
 
+    public List<ChangeDetail> detailedChangesOf(BuildDetail buildDetail) {
+        final String href = buildDetail.changes.href;
+        final String url = endpoint + href + ((href.indexOf('?') < 0) ? "?" : "&") + "fields=" + encode(CHANGE_SURVEY);
+        
+        final List<ListenableFuture<ChangeDetail>> result = new ArrayList<ListenableFuture<ChangeDetail>>();
+        for (JsonElement jsonElement : changeElementsOf(contact.makeJsonRestCall(url))) {
+            final Change change = ARCHIVE_FORMAT.fromJson(jsonElement, Change.class);
+            if (null == change.href) {
+                continue;
+            }
+            
+            final ChangeDetail known = knownChangeAt(endpoint + change.href);
+            if (null != known) {
+                result.add(Futures.immediateFuture(known));
+            }
+            else if (surveyed(jsonElement)) {
+                result.add(Futures.immediateFuture(remember(endpoint + change.href, ARCHIVE_FORMAT.fromJson(jsonElement, ChangeDetail.class))));
+            }
+            else {
+                result.add(futureDetailedChangesOf(change));
+            }
+        }
+        return allOf(result);
+    }
+
+    public List<ChangeDetail> detailedChangesOfCompleted(BuildDetail buildDetail) {
+        if (null == buildDetail.href) {
+            return detailedChangesOf(buildDetail);
+        }
+        
+        final String url = endpoint + buildDetail.href;
+        final List<ChangeDetail> known = completedBuildChanges.getIfPresent(url);
+        if (null != known) {
+            return known;
+        }
+        
+        final List<ChangeDetail> changes = unmodifiableList(detailedChangesOf(buildDetail));
+        if (!changes.contains(null)) {
+            completedBuildChanges.put(url, changes);
+        }
+        return changes;
+    }
+
     public ChangeDetail detailedChangesOf(Change change) {
-        return makeTeamCityRestCall(endpoint + change.href, ChangeDetail.class);
+        final String url = endpoint + change.href;
+        final ChangeDetail known = knownChangeAt(url);
+        if (null != known) {
+            return known;
+        }
+        
+        final ChangeDetail changeDetail = makeTeamCityRestCall(url, ChangeDetail.class);
+        if (null != changeDetail && null != changeDetail.href) {
+            remember(url, changeDetail);
+        }
+        return changeDetail;
+    }
+
+    private ListenableFuture<ChangeDetail> futureDetailedChangesOf(Change change) {
+        if (!(contact instanceof AsyncContact)) {
+            return Futures.immediateFuture(detailedChangesOf(change));
+        }
+        
+        final String url = endpoint + change.href;
+        return Futures.transform(((AsyncContact)contact).makeAsyncJsonRestCall(url, ChangeDetail.class), new Function<ChangeDetail, ChangeDetail>() {
+            @Override public ChangeDetail apply(ChangeDetail changeDetail) {
+                if (null != changeDetail && null != changeDetail.href) {
+                    remember(url, changeDetail);
+                }
+                return changeDetail;
+            }
+        });
+    }
+
+    private static List<ChangeDetail> allOf(List<ListenableFuture<ChangeDetail>> changeDetails) {
+        try {
+            return Futures.allAsList(changeDetails).get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private static Iterable<JsonElement> changeElementsOf(JsonElement json) {
+        final JsonElement change = json.isJsonObject() ? json.getAsJsonObject().get("change") : JsonNull.INSTANCE;
+        
+        if (null == change || !(change.isJsonArray() || change.isJsonObject())) {
+            return ImmutableList.of();
+        }
+        return change.isJsonArray() ? change.getAsJsonArray() : ImmutableList.of(change);
+    }
+
+    private static boolean surveyed(JsonElement change) {
+        if (!change.isJsonObject()) {
+            return false;
+        }
+        final JsonObject fields = change.getAsJsonObject();
+        return fields.has("username") || fields.has("comment");
+    }
+
+    private ChangeDetail knownChangeAt(String url) {
+        final ChangeDetail cached = changeDetails.getIfPresent(url);
+        if (null != cached) {
+            return cached;
+        }
+        
+        final ChangeDetail archived = archivedChangeAt(url);
+        if (null != archived) {
+            changeDetails.put(url, archived);
+        }
+        return archived;
+    }
+
+    private ChangeDetail remember(String url, ChangeDetail changeDetail) {
+        changeDetails.put(url, changeDetail);
+        archive.deposit(ARCHIVE_PREFIX + url, ARCHIVE_FORMAT.toJson(changeDetail));
+        return changeDetail;
+    }
+
+    private ChangeDetail archivedChangeAt(String url) {
+        final String record = archive.retrieve(ARCHIVE_PREFIX + url);
+        if (null == record) {
+            return null;
+        }
+        try {
+            return ARCHIVE_FORMAT.fromJson(record, ChangeDetail.class);
+        }
+        catch (JsonParseException e) {
+            return null;
+        }
     }
 
     private <T> T makeTeamCityRestCall(String url, Class<T> type) {
         return contact.makeJsonRestCall(url, type);
     }
 
+    private static String encode(String parameter) {
+        try {
+            return URLEncoder.encode(parameter, "UTF-8");
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static final Predicate<Build> primaryBranchBuilds = new Predicate<Build>() {
         @Override public boolean apply(Build input) {
             return input.defaultBranch == null || input.defaultBranch;
@@ -1,9 +1,11 @@
 package org.netmelody.cieye.spies.teamcity;
 
+import java.io.Reader;
 import java.text.SimpleDateFormat;
 
 import org.netmelody.cieye.core.domain.CiServerType;
 import org.netmelody.cieye.core.domain.Feature;
+import org.netmelody.cieye.core.observation.Archives;
 import org.netmelody.cieye.core.observation.CiSpy;
 import org.netmelody.cieye.core.observation.CodeBook;
 import org.netmelody.cieye.core.observation.CommunicationNetwork;
@@ -18,13 +20,13 @@ public final class TeamCityObservationAgency implements ObservationAgency {
     public CiSpy provideSpyFor(Feature feature, CommunicationNetwork network, KnownOffendersDirectory directory) {
         final CodeBook codeBook = new CodeBook(new SimpleDateFormat("yyyyMMdd'T'HHmmssZ"))
                                       .withCredentials(feature.username(), feature.password())
-                                      .withRawContentMunger(new Function<String, String>() {
-                                          @Override public String apply(String input) {
-                                              return input.replace("\"@", "\"");
+                                      .withStreamingContentMunger(new Function<Reader, Reader>() {
+                                          @Override public Reader apply(Reader input) {
+                                              return new AttributePrefixStrippingReader(input);
                                           }
                                       });
 
-        return new TeamCitySpy(feature.endpoint(), directory, network.makeContact(codeBook));
+        return new TeamCitySpy(feature.endpoint(), directory, network.makeContact(codeBook), Archives.archiveOf(network));
     }
 
     @Override
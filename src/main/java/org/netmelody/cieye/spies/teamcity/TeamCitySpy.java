@@ -1,13 +1,14 @@
 package org.netmelody.cieye.spies.teamcity;
 
+import static com.google.common.cache.CacheLoader.from;
 import static com.google.common.collect.Collections2.filter;
 import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Maps.newHashMap;
 import static org.netmelody.cieye.core.domain.Status.UNKNOWN;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.netmelody.cieye.core.domain.Feature;
 import org.netmelody.cieye.core.domain.Status;
@@ -15,29 +16,52 @@ import org.netmelody.cieye.core.domain.TargetDetail;
 import org.netmelody.cieye.core.domain.TargetDigest;
 import org.netmelody.cieye.core.domain.TargetDigestGroup;
 import org.netmelody.cieye.core.domain.TargetId;
+import org.netmelody.cieye.core.observation.Archive;
 import org.netmelody.cieye.core.observation.CiSpy;
 import org.netmelody.cieye.core.observation.Contact;
+import org.netmelody.cieye.core.observation.ForgetfulArchive;
 import org.netmelody.cieye.core.observation.KnownOffendersDirectory;
 import org.netmelody.cieye.spies.teamcity.jsondomain.Build;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildType;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeDetail;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeStatus;
 
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.MapMaker;
 
 public final class TeamCitySpy implements CiSpy {
 
     private final TeamCityCommunicator communicator;
     private final BuildTypeAnalyser buildTypeAnalyser;
 
-    private final Map<TargetId, BuildType> recognisedBuildTypes = newHashMap();
+    private static final long SURVEY_LIFETIME_SECONDS = 4L;
+
+    private final Map<TargetId, BuildType> recognisedBuildTypes = new MapMaker().makeMap();
+    private final LoadingCache<String, ProjectSurvey> surveys;
+    private volatile boolean surveysSupported = true;
     
     public TeamCitySpy(String endpoint, KnownOffendersDirectory detective, Contact contact) {
-        this.communicator = new TeamCityCommunicator(contact, endpoint);
+        this(endpoint, detective, contact, new ForgetfulArchive());
+    }
+    
+    public TeamCitySpy(String endpoint, KnownOffendersDirectory detective, Contact contact, Archive archive) {
+        this.communicator = new TeamCityCommunicator(contact, endpoint, archive);
         this.buildTypeAnalyser = new BuildTypeAnalyser(this.communicator, detective);
+        this.surveys = CacheBuilder.newBuilder()
+                                   .expireAfterWrite(SURVEY_LIFETIME_SECONDS, TimeUnit.SECONDS)
+                                   .build(from(new Function<String, ProjectSurvey>() {
+                                       @Override public ProjectSurvey apply(String projectId) {
+                                           return new ProjectSurvey(communicator, projectId);
+                                       }
+                                   }));
     }
 
     @Override
     public TargetDigestGroup targetsConstituting(Feature feature) {
+        surveys.invalidateAll();
         
         final Collection<BuildType> buildTypes = buildTypesFor(feature);
         final List<TargetDigest> digests = newArrayList();
@@ -58,6 +82,17 @@ public final class TeamCitySpy implements CiSpy {
         if (null == buildType) {
             return null;
         }
+        
+        if (surveysSupported && null != buildType.projectId && null != buildType.id) {
+            final ProjectSurvey survey = surveys.getUnchecked(buildType.projectId);
+            final BuildTypeStatus status = survey.statusOf(buildType.id);
+            if (null != status) {
+                return buildTypeAnalyser.targetFrom(buildType, status, survey.runningBuildsOf(buildType.id));
+            }
+            if (survey.unsupported()) {
+                surveysSupported = false;
+            }
+        }
         return buildTypeAnalyser.targetFrom(buildType);
     }
     
@@ -83,26 +118,6 @@ public final class TeamCitySpy implements CiSpy {
         }
         
         final Collection<BuildType> buildTypes = communicator.buildTypes();
-        
-        for(BuildType bt : buildTypes) {
-            
-            List<Build> list = communicator.runningBuildsFor(bt);
-               
-            
-            if(list.size() == 1 && list.get(0) != null) {
-                String number = list.get(0).number;
-                String branchName = list.get(0).branchName;
-                if(branchName == null && branchName.isEmpty()) {
-                    branchName = "";
-                }
-                String toAdd = " #"+number+" "+ branchName;
-                
-                if(!bt.name.contains(toAdd)) {
-                    bt.name+=toAdd;
-                }
-            }
-            
-        }
         if (feature.name().isEmpty()) {
             return buildTypes;
         }
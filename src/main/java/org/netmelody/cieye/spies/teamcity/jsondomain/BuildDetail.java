@@ -14,6 +14,9 @@ public final class BuildDetail {
     public boolean history;
     public boolean pinned;
     public String statusText;
+    public String buildTypeId;
+    public int percentageComplete;
+    public String branchName;
     //buildType
     public Date startDate;
     public Date finishDate;
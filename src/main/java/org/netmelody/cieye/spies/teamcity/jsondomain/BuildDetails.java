@@ -0,0 +1,14 @@
+package org.netmelody.cieye.spies.teamcity.jsondomain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+public final class BuildDetails {
+    public int count;
+    public List<BuildDetail> build;
+    
+    public List<BuildDetail> build() {
+        return (null == build) ? new ArrayList<BuildDetail>() : build;
+    }
+}
@@ -0,0 +1,20 @@
+package org.netmelody.cieye.spies.teamcity.jsondomain;
+
+public final class BuildTypeStatus {
+    public String id;
+    public Boolean paused;
+    public BuildDetails builds;
+    public Investigations investigations;
+    
+    public boolean surveyed() {
+        return null != builds;
+    }
+    
+    public boolean paused() {
+        return null != paused && paused;
+    }
+    
+    public BuildDetail lastCompletedBuild() {
+        return (null == builds || builds.build().isEmpty()) ? null : builds.build().get(0);
+    }
+}
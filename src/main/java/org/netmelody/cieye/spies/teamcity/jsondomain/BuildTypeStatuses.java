@@ -0,0 +1,12 @@
+package org.netmelody.cieye.spies.teamcity.jsondomain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BuildTypeStatuses {
+    public List<BuildTypeStatus> buildType;
+
+    public List<BuildTypeStatus> buildType() {
+        return (null == buildType) ? new ArrayList<BuildTypeStatus>() : buildType;
+    }
+}
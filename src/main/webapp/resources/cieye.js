@@ -215,9 +215,10 @@ ORG.NETMELODY.CIEYE.newRadiatorWidget = function() {
         dohAudio = $("<audio><source src='/doh.ogg' type='audio/ogg'/><source src='/doh.wav' type='audio/wav'/></audio>"),
         woohooAudio = $("<audio><source src='/woohoo.ogg' type='audio/ogg'/><source src='/woohoo.wav' type='audio/wav'/></audio>"),
         targetWidgets = {},
+        currentTargets = {},
         dohMugshots = {},
         noisy = false,
-        statusRanks = ["BROKEN", "UNKNOWN", "UNDER_INVESTIGATION", "GREEN", "DISABLED"];
+        statusRanks = ["BROKEN", "UNKNOWN", "UNREACHABLE", "UNDER_INVESTIGATION", "GREEN", "DISABLED"];
 
     function targetComparator(a, b) {
         function compare(obj1, obj2) {
@@ -289,9 +290,30 @@ ORG.NETMELODY.CIEYE.newRadiatorWidget = function() {
         return result;
     }
     
-    function updateFrom(targetGroupJson) {
-        var targets = targetGroupJson.targets.sort(targetComparator),
+    function patched(deltaJson) {
+        var targets = [];
+        
+        $.each(deltaJson.removed, function(index, targetId) {
+            delete currentTargets[targetId];
+        });
+        $.each(deltaJson.added.concat(deltaJson.changed), function(index, targetJson) {
+            currentTargets[targetJson.id] = targetJson;
+        });
+        $.each(currentTargets, function(targetId, targetJson) {
+            targets.push(targetJson);
+        });
+        return { "targets": targets, "dohGroup": deltaJson.dohGroup };
+    }
+    
+    function updateFrom(updateJson) {
+        var targetGroupJson = updateJson.targets ? updateJson : patched(updateJson),
+            targets = targetGroupJson.targets.sort(targetComparator),
             deadTargetWidgets = $.extend({}, targetWidgets);
+        
+        currentTargets = {};
+        $.each(targets, function(index, targetJson) {
+            currentTargets[targetJson.id] = targetJson;
+        });
 
         if (targetGroupJson.dohGroup) {
             doDoh(targetGroupJson.dohGroup);
@@ -409,13 +431,23 @@ ORG.NETMELODY.CIEYE.newScheduler = function(browser) {
 };
 
 ORG.NETMELODY.CIEYE.newRadiator = function(radiatorDiv, scheduler) {
-    var radiatorWidget = ORG.NETMELODY.CIEYE.newRadiatorWidget();
+    var radiatorWidget = ORG.NETMELODY.CIEYE.newRadiatorWidget(),
+        version = undefined;
     
     function update() {
         scheduler.guard(60000);
-        $.getJSON("landscapeobservation.json", function(targetList) {
-            scheduler.relax();
-            radiatorWidget.updateFrom(targetList);
+        $.ajax({
+            "url": "landscapeobservation.json",
+            "data": version ? { "since": version } : {},
+            "dataType": "json",
+            "ifModified": true,
+            "success": function(targetList, textStatus, xhr) {
+                scheduler.relax();
+                if (textStatus !== "notmodified") {
+                    version = xhr.getResponseHeader("X-Landscape-Version");
+                    radiatorWidget.updateFrom(targetList);
+                }
+            }
         });
     }
     
@@ -423,12 +455,38 @@ ORG.NETMELODY.CIEYE.newRadiator = function(radiatorDiv, scheduler) {
         radiatorWidget.refresh();
     }
     
-    function startup() {
-        radiatorDiv.append(radiatorWidget.getContent());
+    function poll() {
         update();
         scheduler.repeat(update, 2000);
     }
     
+    function listen() {
+        var source = new window.EventSource("landscapeobservation.stream");
+        
+        source.onmessage = function(event) {
+            scheduler.relax();
+            radiatorWidget.updateFrom($.parseJSON(event.data));
+        };
+        source.addEventListener("heartbeat", function() {
+            scheduler.relax();
+        }, false);
+        source.onerror = function() {
+            if (source.readyState === window.EventSource.CLOSED) {
+                poll();
+            }
+        };
+        scheduler.repeat(function() { scheduler.guard(60000); }, 2000);
+    }
+    
+    function startup() {
+        radiatorDiv.append(radiatorWidget.getContent());
+        if (window.EventSource) {
+            listen();
+            return;
+        }
+        poll();
+    }
+    
     function silentMode(status) {
         radiatorWidget.silentMode(status);
     }
@@ -0,0 +1,36 @@
+package org.netmelody.cieye.core.domain.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.netmelody.cieye.core.domain.Percentage.percentageOf;
+
+import org.junit.Test;
+import org.netmelody.cieye.core.domain.RunningBuild;
+import org.netmelody.cieye.core.domain.Sponsor;
+import org.netmelody.cieye.core.domain.Status;
+import org.netmelody.cieye.core.domain.TargetDetail;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public final class TargetDetailTest {
+
+    @Test public void
+    equalsAnotherDetailWithTheSameValues() {
+        assertThat(detail(Status.GREEN, 50), is(detail(Status.GREEN, 50)));
+        assertThat(detail(Status.GREEN, 50).hashCode(), is(detail(Status.GREEN, 50).hashCode()));
+    }
+
+    @Test public void
+    differsFromADetailWithADifferentStatusOrProgress() {
+        assertThat(detail(Status.GREEN, 50), is(not(detail(Status.BROKEN, 50))));
+        assertThat(detail(Status.GREEN, 50), is(not(detail(Status.GREEN, 60))));
+    }
+
+    private static TargetDetail detail(Status status, int progress) {
+        return new TargetDetail("id", "url", "name", status, 100L,
+                                ImmutableList.of(new RunningBuild(percentageOf(progress), Status.GREEN)),
+                                ImmutableSet.of(new Sponsor("bob")));
+    }
+}
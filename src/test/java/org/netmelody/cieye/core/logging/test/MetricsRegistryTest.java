@@ -0,0 +1,71 @@
+package org.netmelody.cieye.core.logging.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Test;
+import org.netmelody.cieye.core.logging.Gauge;
+import org.netmelody.cieye.core.logging.LatencyHistogram;
+import org.netmelody.cieye.core.logging.MetricName;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
+
+public final class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test public void
+    sharesCountersWithTheSameNameAndLabels() {
+        registry.counter("requests", "host", "a", "method", "GET").increment();
+        registry.counter("requests", "method", "GET", "host", "a").increment();
+        registry.counter("requests", "host", "b", "method", "GET").increment();
+
+        assertThat(registry.counter("requests", "host", "a", "method", "GET").count(), is(2L));
+        assertThat(registry.counter("requests", "host", "b", "method", "GET").count(), is(1L));
+    }
+
+    @Test public void
+    listsMetricsInNameAndLabelOrder() {
+        registry.counter("requests", "host", "b");
+        registry.counter("errors");
+        registry.counter("requests", "host", "a");
+
+        assertThat(registry.counters().keySet(), contains(MetricName.of("errors"),
+                                                          MetricName.of("requests", "host", "a"),
+                                                          MetricName.of("requests", "host", "b")));
+        assertThat(MetricName.of("requests", "host", "a").toString(), is("requests{host=a}"));
+    }
+
+    @Test public void
+    readsGaugesAfreshAndForgetsThemOnRequest() {
+        final long[] depth = { 3L };
+        final Gauge gauge = new Gauge() {
+            @Override public long reading() { return depth[0]; }
+        };
+        registry.gauge(gauge, "queueDepth");
+        depth[0] = 5L;
+
+        assertThat(registry.gauges().get(MetricName.of("queueDepth")), is(sameInstance(gauge)));
+        assertThat(registry.gauges().get(MetricName.of("queueDepth")).reading(), is(5L));
+
+        registry.forgetGauge("queueDepth");
+        assertThat(registry.gauges().isEmpty(), is(true));
+    }
+
+    @Test public void
+    accumulatesLatenciesIntoCumulativeBuckets() {
+        final LatencyHistogram histogram = registry.histogram("latency");
+        histogram.record(1L);
+        histogram.record(7L);
+        histogram.record(120000L);
+
+        assertThat(histogram.count(), is(3L));
+        assertThat(histogram.totalMillis(), is(120008L));
+        assertThat(histogram.maximumMillis(), is(120000L));
+        assertThat(histogram.cumulativeCountOf(0), is(1L));
+        assertThat(histogram.cumulativeCountOf(3), is(2L));
+        assertThat(histogram.cumulativeCountOf(histogram.bucketCount() - 2), is(2L));
+        assertThat(histogram.cumulativeCountOf(histogram.bucketCount() - 1), is(3L));
+    }
+}
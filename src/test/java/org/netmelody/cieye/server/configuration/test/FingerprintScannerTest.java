@@ -0,0 +1,61 @@
+package org.netmelody.cieye.server.configuration.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.netmelody.cieye.core.domain.Sponsor;
+import org.netmelody.cieye.server.configuration.Biometric;
+import org.netmelody.cieye.server.configuration.FingerprintScanner;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+public final class FingerprintScannerTest {
+
+    private final Sponsor ann = new Sponsor("ann", "/ann.png");
+    private final Sponsor annabel = new Sponsor("annabel", "/annabel.png");
+    private final Sponsor bob = new Sponsor("bob", "/bob.png");
+
+    private final List<Biometric> biometrics = ImmutableList.of(new Biometric(ann, ImmutableList.of("ann", "-a.n-")),
+                                                                new Biometric(annabel, ImmutableList.of("Annabel Lee")),
+                                                                new Biometric(bob, ImmutableList.of("bob", "bob_b")));
+    private final FingerprintScanner scanner = new FingerprintScanner(biometrics);
+
+    @Test public void
+    findsOverlappingFingerprintsInOnePass() {
+        assertThat(scanner.scan("fixed by ANNABEL lee and ann"), contains(ann, annabel));
+    }
+
+    @Test public void
+    onlyMatchesWholeWords() {
+        assertThat(scanner.scan("annabel bobby_b"), is(Matchers.<Sponsor>empty()));
+        assertThat(scanner.scan("bob_b"), contains(bob));
+    }
+
+    @Test public void
+    agreesWithTheBiometricPatterns() {
+        final Random random = new Random(42L);
+        final String alphabet = "anbelANBEL -_.:/\n";
+        for (int run = 0; run < 2000; run++) {
+            final StringBuilder crimeScene = new StringBuilder();
+            for (int i = random.nextInt(30); i > 0; i--) {
+                crimeScene.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            final Set<Sponsor> expected = Sets.newLinkedHashSet();
+            for (Biometric biometric : biometrics) {
+                if (biometric.foundAt(crimeScene.toString())) {
+                    expected.add(biometric.sponsor());
+                }
+            }
+            assertThat(crimeScene.toString(), scanner.scan(crimeScene.toString()), is(expected));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.netmelody.cieye.server.configuration.test;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.netmelody.cieye.server.configuration.RecordedArchive;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+public final class RecordedArchiveTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test public void
+    retrievesDepositedRecords() {
+        final RecordedArchive archive = new RecordedArchive(new File(testFolder.newFolder("test"), "archive.log"));
+        
+        archive.deposit("build:1", "{\"number\":1}");
+        
+        assertThat(archive.retrieve("build:1"), is("{\"number\":1}"));
+        assertThat(archive.retrieve("build:2"), is(nullValue()));
+    }
+
+    @Test public void
+    recoversRecordsDepositedBeforeARestart() {
+        final File file = new File(testFolder.newFolder("test"), "archive.log");
+        final RecordedArchive archive = new RecordedArchive(file);
+        archive.deposit("build:1", "{\"number\":1}");
+        archive.deposit("build:2", "{\"number\":2}");
+        archive.deposit("build:1", "{\"number\":3}");
+        archive.close();
+        
+        final RecordedArchive recovered = new RecordedArchive(file);
+        
+        assertThat(recovered.retrieve("build:1"), is("{\"number\":3}"));
+        assertThat(recovered.retrieve("build:2"), is("{\"number\":2}"));
+        recovered.close();
+    }
+
+    @Test public void
+    doesNotPersistRecordsThatWouldCorruptTheLog() {
+        final File file = new File(testFolder.newFolder("test"), "archive.log");
+        final RecordedArchive archive = new RecordedArchive(file);
+        archive.deposit("build:1", "line one\nline two");
+        archive.deposit("build\t2", "{}");
+        archive.close();
+        
+        final RecordedArchive recovered = new RecordedArchive(file);
+        
+        assertThat(recovered.retrieve("build:1"), is(nullValue()));
+        assertThat(recovered.retrieve("build\t2"), is(nullValue()));
+        recovered.close();
+    }
+
+    @Test public void
+    compactsSupersededRecordsWithoutLosingTheLatest() throws IOException {
+        final File file = new File(testFolder.newFolder("test"), "archive.log");
+        final RecordedArchive archive = new RecordedArchive(file);
+        for (int number = 0; number < 1500; number++) {
+            archive.deposit("build:1", "{\"number\":" + number + "}");
+        }
+        archive.close();
+        
+        final RecordedArchive recovered = new RecordedArchive(file);
+        
+        assertThat(recovered.retrieve("build:1"), is("{\"number\":1499}"));
+        assertThat(FileUtils.readLines(file).size(), is(lessThan(1500)));
+        recovered.close();
+    }
+}
@@ -24,10 +24,11 @@ public final class RecordedKnownOffendersTest {
     @Rule
     public TemporaryFolder testFolder = new TemporaryFolder();
     private RecordedKnownOffenders offenders;
+    private File peeps;
 
     @Before
     public void createOffendersFile() throws IOException {
-        final File peeps = testFolder.newFile("peeps.txt");
+        peeps = testFolder.newFile("peeps.txt");
         FileUtils.copyInputStreamToFile(RecordedKnownOffendersTest.class.getResourceAsStream("testPictures.txt"), peeps);
         offenders = new RecordedKnownOffenders(new SettingsFile(peeps));
     }
@@ -83,4 +84,23 @@ public final class RecordedKnownOffendersTest {
         final String gravatarUrlWithHashedEmail = new Gravatar().imageUrlFor("john.doe@gmail.com");
         assertThat(offenders.search("john"), contains(new Sponsor("", gravatarUrlWithHashedEmail)));
     }
+    
+    @Test public void
+    remembersSearchesOfTheSameText() {
+        offenders.search("fixed by vlad");
+        offenders.search("fixed by vlad");
+        
+        assertThat(offenders.searchStats().hitCount(), is(1L));
+    }
+    
+    @Test public void
+    forgetsRememberedSearchesWhenThePicturesChange() throws IOException {
+        assertThat(offenders.search("fixed by vlad"), contains(new Sponsor("", "/pictures/vlad.png")));
+        
+        FileUtils.writeStringToFile(peeps, "[bob.png]\nvlad\n");
+        peeps.setLastModified(System.currentTimeMillis() + 10000L);
+        offenders.refresh();
+        
+        assertThat(offenders.search("fixed by vlad"), contains(new Sponsor("", "/pictures/bob.png")));
+    }
 }
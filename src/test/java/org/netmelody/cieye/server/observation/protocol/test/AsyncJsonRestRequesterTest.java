@@ -0,0 +1,45 @@
+package org.netmelody.cieye.server.observation.protocol.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.netmelody.cieye.core.observation.AsyncContact;
+import org.netmelody.cieye.core.observation.CodeBook;
+import org.netmelody.cieye.server.observation.protocol.JsonRestRequesterBuilder;
+import org.netmelody.cieye.server.observation.protocol.test.JsonRestRequesterTest.DummyJson;
+
+public final class AsyncJsonRestRequesterTest {
+
+    private final DummyServer server = new DummyServer();
+    private final JsonRestRequesterBuilder network = JsonRestRequesterBuilder.asynchronous(1);
+    private final AsyncContact contact = (AsyncContact)network.makeContact(new CodeBook());
+
+    @After
+    public void shutdown() {
+        network.shutdown();
+        server.close();
+    }
+
+    @Test public void
+    makesASuccessfulRequestInTheBackground() throws Exception {
+        server.respondWith("{ \"property\": \"value\" }");
+        final DummyJson result = contact.makeAsyncJsonRestCall("http://localhost:" + server.port() + "/", DummyJson.class)
+                                        .get(5L, TimeUnit.SECONDS);
+        assertThat(result, hasProperty("property", equalTo("value")));
+    }
+
+    @Test public void
+    yieldsAnEmptyResultForAFailedRequest() throws Exception {
+        server.respondWithStatusCode(500);
+        final DummyJson result = contact.makeAsyncJsonRestCall("http://localhost:" + server.port() + "/", DummyJson.class)
+                                        .get(5L, TimeUnit.SECONDS);
+        assertThat(result.getProperty(), is(nullValue()));
+    }
+}
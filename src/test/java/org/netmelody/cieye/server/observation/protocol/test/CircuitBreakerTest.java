@@ -0,0 +1,81 @@
+package org.netmelody.cieye.server.observation.protocol.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+import org.netmelody.cieye.server.observation.protocol.CircuitBreaker;
+
+public final class CircuitBreakerTest {
+
+    private final CircuitBreaker breaker = new CircuitBreaker("ci:8080", 3, 1000L, 3000L);
+
+    @Test public void
+    opensAfterConsecutiveFailures() {
+        breaker.failedAt(0L);
+        breaker.failedAt(0L);
+        assertThat(breaker.permitsRequestAt(0L), is(true));
+        
+        breaker.failedAt(0L);
+        assertThat(breaker.permitsRequestAt(10L), is(false));
+        assertThat(breaker.unavailableAt(10L), is(true));
+    }
+
+    @Test public void
+    forgetsFailuresAfterASuccess() {
+        breaker.failedAt(0L);
+        breaker.failedAt(0L);
+        breaker.succeeded();
+        breaker.failedAt(0L);
+        
+        assertThat(breaker.closed(), is(true));
+        assertThat(breaker.permitsRequestAt(0L), is(true));
+    }
+
+    @Test public void
+    permitsASingleProbeOnceTheOpenPeriodHasElapsed() {
+        tripAt(0L);
+        
+        assertThat(breaker.unavailableAt(1000L), is(false));
+        assertThat(breaker.permitsRequestAt(1000L), is(true));
+        assertThat(breaker.permitsRequestAt(1001L), is(false));
+        assertThat(breaker.unavailableAt(1001L), is(true));
+    }
+
+    @Test public void
+    closesWhenTheProbeSucceeds() {
+        tripAt(0L);
+        breaker.permitsRequestAt(1000L);
+        breaker.succeeded();
+        
+        assertThat(breaker.closed(), is(true));
+        assertThat(breaker.permitsRequestAt(1001L), is(true));
+    }
+
+    @Test public void
+    backsOffExponentiallyWhileProbesFail() {
+        tripAt(0L);
+        breaker.permitsRequestAt(1000L);
+        breaker.failedAt(1000L);
+        assertThat(breaker.permitsRequestAt(2999L), is(false));
+        assertThat(breaker.permitsRequestAt(3000L), is(true));
+        
+        breaker.failedAt(3000L);
+        assertThat(breaker.permitsRequestAt(5999L), is(false));
+        assertThat(breaker.permitsRequestAt(6000L), is(true));
+    }
+
+    @Test public void
+    permitsAnotherProbeIfTheFirstNeverReports() {
+        tripAt(0L);
+        breaker.permitsRequestAt(1000L);
+        
+        assertThat(breaker.permitsRequestAt(2000L), is(true));
+    }
+
+    private void tripAt(long nowMillis) {
+        breaker.failedAt(nowMillis);
+        breaker.failedAt(nowMillis);
+        breaker.failedAt(nowMillis);
+    }
+}
@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.simpleframework.http.Request;
 import org.simpleframework.http.Response;
@@ -11,18 +13,23 @@ import org.simpleframework.http.core.Container;
 import org.simpleframework.transport.connect.Connection;
 import org.simpleframework.transport.connect.SocketConnection;
 
+import com.google.common.collect.Maps;
+
 public final class DummyServer {
     
     private final int port;
     private final Connection connection;
     private String responseText = "";
     private int code = 200;
+    private final Map<String, String> headers = Maps.newHashMap();
+    private volatile Request lastRequest;
 
     public DummyServer() {
         try {
             connection = new SocketConnection(new Container(){
                 @Override public void handle(Request request, Response response) {
                     try {
+                        lastRequest = request;
                         handleSafely(response);
                     } catch (IOException e) {
                         throw new IllegalStateException(e);
@@ -47,6 +54,14 @@ public final class DummyServer {
         this.code = code;
     }
 
+    public void respondWithHeader(String name, String value) {
+        this.headers.put(name, value);
+    }
+
+    public String lastRequestHeader(String name) {
+        return (null == lastRequest) ? null : lastRequest.getValue(name);
+    }
+
     public int port() {
         return this.port;
     }
@@ -68,8 +83,13 @@ public final class DummyServer {
         response.setDate("Date", time);
         response.setDate("Last-Modified", time);
         response.setCode(code );
+        for (Entry<String, String> header : headers.entrySet()) {
+            response.set(header.getKey(), header.getValue());
+        }
 
-        body.println(responseText);
+        if (code != 304) {
+            body.println(responseText);
+        }
         body.close();
     }
 }
\ No newline at end of file
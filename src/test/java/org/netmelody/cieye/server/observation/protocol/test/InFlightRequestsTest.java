@@ -0,0 +1,85 @@
+package org.netmelody.cieye.server.observation.protocol.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.netmelody.cieye.server.observation.protocol.InFlightRequests;
+
+public final class InFlightRequestsTest {
+
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test public void
+    sharesTheOutcomeOfAnIdenticalRequestAlreadyInFlight() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger exchanges = new AtomicInteger();
+        final Callable<String> exchange = new Callable<String>() {
+            @Override public String call() throws Exception {
+                exchanges.incrementAndGet();
+                started.countDown();
+                release.await(5L, TimeUnit.SECONDS);
+                return "result";
+            }
+        };
+
+        final Future<String> first = executor.submit(fetching("key", exchange));
+        started.await(5L, TimeUnit.SECONDS);
+        final Future<String> second = executor.submit(fetching("key", exchange));
+        while (inFlightRequests.coalescedCount() == 0L) {
+            Thread.sleep(5L);
+        }
+        release.countDown();
+
+        assertThat(first.get(5L, TimeUnit.SECONDS), is("result"));
+        assertThat(second.get(5L, TimeUnit.SECONDS), is("result"));
+        assertThat(exchanges.get(), is(1));
+    }
+
+    @Test public void
+    makesAFreshRequestOnceThePreviousOneHasCompleted() throws Exception {
+        final AtomicInteger exchanges = new AtomicInteger();
+        final Callable<String> exchange = new Callable<String>() {
+            @Override public String call() {
+                return "result" + exchanges.incrementAndGet();
+            }
+        };
+
+        assertThat(inFlightRequests.fetch("key", String.class, exchange), is("result1"));
+        assertThat(inFlightRequests.fetch("key", String.class, exchange), is("result2"));
+        assertThat(inFlightRequests.coalescedCount(), is(0L));
+    }
+
+    @Test(expected=IllegalStateException.class) public void
+    propagatesTheFailureOfTheExchange() throws Exception {
+        inFlightRequests.fetch("key", String.class, new Callable<String>() {
+            @Override public String call() {
+                throw new IllegalStateException();
+            }
+        });
+    }
+
+    private Callable<String> fetching(final String key, final Callable<String> exchange) {
+        return new Callable<String>() {
+            @Override public String call() throws Exception {
+                return inFlightRequests.fetch(key, String.class, exchange);
+            }
+        };
+    }
+}
@@ -4,11 +4,28 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasProperty;
 
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.After;
 import org.junit.Test;
+import org.netmelody.cieye.core.observation.CodeBook;
+import org.netmelody.cieye.server.observation.protocol.ContentParser;
+import org.netmelody.cieye.server.observation.protocol.GrapeVine;
+import org.netmelody.cieye.server.observation.protocol.InFlightRequests;
 import org.netmelody.cieye.server.observation.protocol.JsonRestRequester;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
 
 public final class JsonRestRequesterTest {
 
@@ -28,6 +45,59 @@ public final class JsonRestRequesterTest {
         assertThat(result, hasProperty("property", equalTo("value")));
     }
     
+    @Test public void
+    doesNotShareAnInFlightRequestBetweenContactsDecodingDifferently() throws Exception {
+        final CountDownLatch bothRequested = new CountDownLatch(2);
+        final GrapeVine channel = new GrapeVine() {
+            @Override public boolean privileged() { return false; }
+            @Override public String doGet(String url) { return ""; }
+            @Override public <T> T doGet(String url, ContentParser<T> parser) {
+                bothRequested.countDown();
+                try {
+                    bothRequested.await(5L, TimeUnit.SECONDS);
+                    return parser.parse(new StringReader("{}"));
+                }
+                catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            @Override public void doPost(String url) { }
+            @Override public void doPut(String url, String content) { }
+            @Override public void shutdown() { }
+        };
+        final InFlightRequests inFlightRequests = new InFlightRequests();
+        final JsonRestRequester alpha = new JsonRestRequester(codeBookDecodingAs("alpha"), channel, inFlightRequests);
+        final JsonRestRequester bravo = new JsonRestRequester(codeBookDecodingAs("bravo"), channel, inFlightRequests);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<DummyJson> alphaResult = executor.submit(requesting(alpha, "http://foo/"));
+            final Future<DummyJson> bravoResult = executor.submit(requesting(bravo, "http://foo/"));
+
+            assertThat(alphaResult.get(10L, TimeUnit.SECONDS), hasProperty("property", equalTo("alpha")));
+            assertThat(bravoResult.get(10L, TimeUnit.SECONDS), hasProperty("property", equalTo("bravo")));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CodeBook codeBookDecodingAs(final String property) {
+        return new CodeBook().withJsonDeserializerFor(DummyJson.class, new JsonDeserializer<DummyJson>() {
+            @Override public DummyJson deserialize(JsonElement json, Type type, JsonDeserializationContext context) {
+                return new Gson().fromJson("{ \"property\": \"" + property + "\" }", DummyJson.class);
+            }
+        });
+    }
+
+    private static Callable<DummyJson> requesting(final JsonRestRequester requester, final String url) {
+        return new Callable<DummyJson>() {
+            @Override public DummyJson call() {
+                return requester.makeJsonRestCall(url, DummyJson.class);
+            }
+        };
+    }
+
     public static final class DummyJson {
         private String property;
         
@@ -1,11 +1,22 @@
 package org.netmelody.cieye.server.observation.protocol.test;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.After;
 import org.junit.Test;
+import org.netmelody.cieye.server.observation.protocol.CircuitBreakers;
+import org.netmelody.cieye.server.observation.protocol.ContentParser;
+import org.netmelody.cieye.server.observation.protocol.ResponseCache;
 import org.netmelody.cieye.server.observation.protocol.RestRequester;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 
 public final class RestRequesterTest {
@@ -33,6 +44,62 @@ public final class RestRequesterTest {
         assertThat(requester.doGet("http://localhost:" + server.port() + "/"), is(""));
     }
 
+    @Test public void
+    servesCachedContentWhenNotModified() {
+        server.respondWithHeader("ETag", "\"v1\"");
+        server.respondWith("some response text");
+        requester.doGet("http://localhost:" + server.port() + "/");
+        
+        server.respondWithStatusCode(304);
+        server.respondWith("");
+        
+        assertThat(requester.doGet("http://localhost:" + server.port() + "/"), startsWith("some response text"));
+        assertThat(server.lastRequestHeader("If-None-Match"), is("\"v1\""));
+    }
+
+    @Test public void
+    servesTheCachedParseWithoutParsingAgainWhenNotModified() {
+        final ResponseCache cache = new ResponseCache();
+        final RestRequester cachingRequester = new RestRequester("", "", cache, new CircuitBreakers());
+        final AtomicInteger parses = new AtomicInteger();
+        final ContentParser<JsonElement> parser = new ContentParser<JsonElement>() {
+            @Override public Class<JsonElement> type() { return JsonElement.class; }
+            @Override public JsonElement parse(Reader content) throws IOException {
+                parses.incrementAndGet();
+                return new JsonParser().parse(content);
+            }
+        };
+        server.respondWithHeader("ETag", "\"v1\"");
+        server.respondWith("{\"status\":\"SUCCESS\"}");
+        final JsonElement first = cachingRequester.doGet("http://localhost:" + server.port() + "/", parser);
+        
+        server.respondWithStatusCode(304);
+        server.respondWith("");
+        final JsonElement second = cachingRequester.doGet("http://localhost:" + server.port() + "/", parser);
+        
+        assertThat(second, is(sameInstance(first)));
+        assertThat(parses.get(), is(1));
+        assertThat(cache.missCount(), is(1L));
+        assertThat(cache.hitCount(), is(1L));
+        assertThat(cache.notModifiedCount(), is(1L));
+        cachingRequester.shutdown();
+    }
+
+    @Test public void
+    stopsRequestingFromAServerThatKeepsFailing() {
+        final RestRequester guardedRequester = new RestRequester("", "", new ResponseCache(), new CircuitBreakers(2, 60000L, 60000L));
+        server.respondWithStatusCode(503);
+        guardedRequester.doGet("http://localhost:" + server.port() + "/");
+        guardedRequester.doGet("http://localhost:" + server.port() + "/");
+        
+        server.respondWithStatusCode(200);
+        server.respondWith("some response text");
+        
+        assertThat(guardedRequester.doGet("http://localhost:" + server.port() + "/"), is(""));
+        assertThat(requester.doGet("http://localhost:" + server.port() + "/"), startsWith("some response text"));
+        guardedRequester.shutdown();
+    }
+
 //    @Test public void
 //    makesASuccessfulHttpsRequest() {
 //        assertThat(requester.makeRequest("https://localhost:" + server.port() + "/"), startsWith("some response text"));
@@ -0,0 +1,116 @@
+package org.netmelody.cieye.server.observation.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.netmelody.cieye.server.observation.PollingScheduler;
+import org.netmelody.cieye.server.observation.PollingScheduler.Registration;
+
+public final class PollingSchedulerTest {
+
+    private final PollingScheduler scheduler = new PollingScheduler(2);
+
+    @After
+    public void shutdownScheduler() {
+        scheduler.shutdown();
+    }
+
+    @Test public void
+    pollsRegisteredTasksRepeatedly() throws InterruptedException {
+        final CountDownLatch polls = new CountDownLatch(3);
+        scheduler.register("test", new Runnable() {
+            @Override public void run() { polls.countDown(); }
+        }, 10L);
+
+        assertThat(polls.await(5L, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test public void
+    pollsOnDaemonThreadsSoTheServerCanExit() throws InterruptedException {
+        final CountDownLatch polled = new CountDownLatch(1);
+        final AtomicInteger nonDaemonPolls = new AtomicInteger();
+        scheduler.register("test", new Runnable() {
+            @Override public void run() {
+                if (!Thread.currentThread().isDaemon()) {
+                    nonDaemonPolls.incrementAndGet();
+                }
+                polled.countDown();
+            }
+        }, 10L);
+
+        assertThat(polled.await(5L, TimeUnit.SECONDS), is(true));
+        assertThat(nonDaemonPolls.get(), is(0));
+    }
+
+    @Test public void
+    stopsPollingOnceDeregistered() throws InterruptedException {
+        final AtomicInteger pollCount = new AtomicInteger();
+        final CountDownLatch firstPoll = new CountDownLatch(1);
+        final Registration registration = scheduler.register("test", new Runnable() {
+            @Override public void run() {
+                pollCount.incrementAndGet();
+                firstPoll.countDown();
+            }
+        }, 50L);
+
+        firstPoll.await(5L, TimeUnit.SECONDS);
+        registration.deregister();
+        final int pollsAtDeregistration = pollCount.get();
+        Thread.sleep(200L);
+
+        assertThat(pollCount.get(), is(pollsAtDeregistration));
+    }
+
+    @Test public void
+    pollsImmediatelyWhenWokenBeforeThePeriodElapses() throws InterruptedException {
+        final CountDownLatch firstPoll = new CountDownLatch(1);
+        final CountDownLatch secondPoll = new CountDownLatch(2);
+        final Registration registration = scheduler.register("test", new Runnable() {
+            @Override public void run() {
+                firstPoll.countDown();
+                secondPoll.countDown();
+            }
+        }, TimeUnit.HOURS.toMillis(1L));
+
+        firstPoll.await(5L, TimeUnit.SECONDS);
+        registration.pollNow();
+
+        assertThat(secondPoll.await(5L, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test public void
+    pollsOnceMoreWhenWokenDuringAPoll() throws InterruptedException {
+        final CountDownLatch pollStarted = new CountDownLatch(1);
+        final CountDownLatch releasePoll = new CountDownLatch(1);
+        final AtomicInteger pollCount = new AtomicInteger();
+        final CountDownLatch secondPoll = new CountDownLatch(2);
+        final Registration registration = scheduler.register("test", new Runnable() {
+            @Override public void run() {
+                pollCount.incrementAndGet();
+                pollStarted.countDown();
+                try {
+                    releasePoll.await(5L, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                secondPoll.countDown();
+            }
+        }, TimeUnit.HOURS.toMillis(1L));
+
+        pollStarted.await(5L, TimeUnit.SECONDS);
+        registration.pollNow();
+        registration.pollNow();
+        releasePoll.countDown();
+
+        assertThat(secondPoll.await(5L, TimeUnit.SECONDS), is(true));
+        Thread.sleep(100L);
+        assertThat(pollCount.get(), is(2));
+    }
+}
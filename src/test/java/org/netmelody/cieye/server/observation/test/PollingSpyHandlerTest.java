@@ -0,0 +1,208 @@
+package org.netmelody.cieye.server.observation.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.netmelody.cieye.core.domain.CiServerType;
+import org.netmelody.cieye.core.domain.Feature;
+import org.netmelody.cieye.core.domain.Status;
+import org.netmelody.cieye.core.domain.TargetDetail;
+import org.netmelody.cieye.core.domain.TargetDigest;
+import org.netmelody.cieye.core.domain.TargetDigestGroup;
+import org.netmelody.cieye.core.domain.TargetId;
+import org.netmelody.cieye.core.observation.CiSpy;
+import org.netmelody.cieye.server.TargetGroupBriefing;
+import org.netmelody.cieye.server.observation.PollingScheduler;
+import org.netmelody.cieye.server.observation.PollingSpyHandler;
+import org.netmelody.cieye.server.observation.protocol.CircuitBreakers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+public final class PollingSpyHandlerTest {
+
+    private final Feature feature = new Feature("name", "endpoint", new CiServerType("DEMO"));
+    private final PollingScheduler scheduler = new PollingScheduler(1);
+    private final ExecutorService statusFetchers = Executors.newFixedThreadPool(2);
+    private final PollingSpyHandler handler = new PollingSpyHandler(new GreenSpy(), feature, scheduler, statusFetchers, 2);
+
+    @After
+    public void shutdown() {
+        handler.endMission();
+        scheduler.shutdown();
+        statusFetchers.shutdownNow();
+    }
+
+    @Test public void
+    reportsPolledStatusesOnceAFreshResultHasBeenAwaited() {
+        handler.wake(feature);
+        handler.awaitFreshResultFor(feature, System.currentTimeMillis() + 5000L);
+        final TargetGroupBriefing briefing = handler.briefingOn(feature);
+        
+        assertThat(Iterables.size(briefing.status), is(2));
+        for (TargetDetail target : briefing.status) {
+            assertThat(target.status(), is(Status.GREEN));
+        }
+    }
+
+    @Test public void
+    keepsTheSameVersionBetweenPolls() {
+        handler.wake(feature);
+        handler.awaitFreshResultFor(feature, System.currentTimeMillis() + 5000L);
+        final TargetGroupBriefing first = handler.briefingOn(feature);
+        final TargetGroupBriefing second = handler.briefingOn(feature);
+        
+        assertThat(second.version, is(first.version));
+        assertThat(second.status, is(first.status));
+    }
+
+    @Test public void
+    keepsTheSameVersionWhenARefetchedStatusIsUnchanged() throws InterruptedException {
+        final CountDownLatch secondCycle = new CountDownLatch(4);
+        final PollingSpyHandler countingHandler = new PollingSpyHandler(new GreenSpy(secondCycle), feature, scheduler, statusFetchers, 2);
+        try {
+            countingHandler.wake(feature);
+            countingHandler.awaitFreshResultFor(feature, System.currentTimeMillis() + 5000L);
+            final TargetGroupBriefing first = countingHandler.briefingOn(feature);
+            assertThat(secondCycle.await(15L, TimeUnit.SECONDS), is(true));
+            Thread.sleep(200L);
+            
+            assertThat(countingHandler.briefingOn(feature).version, is(first.version));
+        }
+        finally {
+            countingHandler.endMission();
+        }
+    }
+
+    @Test public void
+    reportsTargetsAsUnreachableWhileTheirEndpointCircuitIsOpen() {
+        final Feature remoteFeature = new Feature("name", "http://ci:8080", new CiServerType("DEMO"));
+        final CircuitBreakers breakers = new CircuitBreakers(1, 60000L, 60000L);
+        breakers.breakerFor("http://ci:8080/job/a").failedAt(System.currentTimeMillis());
+        
+        final PollingSpyHandler remoteHandler = new PollingSpyHandler(new GreenSpy(), remoteFeature, scheduler, statusFetchers, 2, breakers);
+        try {
+            final TargetGroupBriefing briefing = remoteHandler.briefingOn(remoteFeature);
+            
+            assertThat(Iterables.size(briefing.status), is(2));
+            for (TargetDetail target : briefing.status) {
+                assertThat(target.status(), is(Status.UNREACHABLE));
+            }
+        }
+        finally {
+            remoteHandler.endMission();
+        }
+    }
+
+    @Test public void
+    boundsConcurrentFetchesAndPublishesCompletedTargetsBeforeTheCycleEnds() {
+        final CountDownLatch release = new CountDownLatch(1);
+        final BlockingSpy spy = new BlockingSpy(release, "a");
+        final ExecutorService fetchers = Executors.newFixedThreadPool(4);
+        final PollingSpyHandler blockingHandler = new PollingSpyHandler(spy, feature, scheduler, fetchers, 2);
+        try {
+            blockingHandler.wake(feature);
+            final long deadline = System.currentTimeMillis() + 5000L;
+            while (Status.GREEN != statusOf("a", blockingHandler.briefingOn(feature)) && System.currentTimeMillis() < deadline) {
+                Thread.yield();
+            }
+            
+            final TargetGroupBriefing midCycle = blockingHandler.briefingOn(feature);
+            assertThat(statusOf("a", midCycle), is(Status.GREEN));
+            assertThat(statusOf("d", midCycle), is(Status.UNKNOWN));
+            
+            release.countDown();
+            blockingHandler.awaitFreshResultFor(feature, System.currentTimeMillis() + 5000L);
+            
+            assertThat(statusOf("d", blockingHandler.briefingOn(feature)), is(Status.GREEN));
+            assertThat(spy.mostFetchesInFlight(), is(lessThanOrEqualTo(2)));
+        }
+        finally {
+            release.countDown();
+            blockingHandler.endMission();
+            fetchers.shutdownNow();
+        }
+    }
+
+    private static Status statusOf(String id, TargetGroupBriefing briefing) {
+        for (TargetDetail target : briefing.status) {
+            if (id.equals(target.id().id())) {
+                return target.status();
+            }
+        }
+        return null;
+    }
+
+    private static final class BlockingSpy implements CiSpy {
+        private final CountDownLatch release;
+        private final String unblockedId;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger mostInFlight = new AtomicInteger();
+        public BlockingSpy(CountDownLatch release, String unblockedId) {
+            this.release = release;
+            this.unblockedId = unblockedId;
+        }
+        @Override public TargetDigestGroup targetsConstituting(Feature feature) {
+            return new TargetDigestGroup(ImmutableList.of(new TargetDigest("a", "url", "a", Status.UNKNOWN),
+                                                          new TargetDigest("b", "url", "b", Status.UNKNOWN),
+                                                          new TargetDigest("c", "url", "c", Status.UNKNOWN),
+                                                          new TargetDigest("d", "url", "d", Status.UNKNOWN)));
+        }
+        @Override public TargetDetail statusOf(TargetId target) {
+            final int current = inFlight.incrementAndGet();
+            try {
+                int most = mostInFlight.get();
+                while (current > most && !mostInFlight.compareAndSet(most, current)) {
+                    most = mostInFlight.get();
+                }
+                if (!unblockedId.equals(target.id())) {
+                    release.await(5L, TimeUnit.SECONDS);
+                }
+                return new TargetDetail(target.id(), "url", target.id(), Status.GREEN, 0L);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            finally {
+                inFlight.decrementAndGet();
+            }
+        }
+        @Override public boolean takeNoteOf(TargetId target, String note) {
+            return false;
+        }
+        public int mostFetchesInFlight() {
+            return mostInFlight.get();
+        }
+    }
+
+    private static final class GreenSpy implements CiSpy {
+        private final CountDownLatch fetches;
+        public GreenSpy() {
+            this(new CountDownLatch(0));
+        }
+        public GreenSpy(CountDownLatch fetches) {
+            this.fetches = fetches;
+        }
+        @Override public TargetDigestGroup targetsConstituting(Feature feature) {
+            return new TargetDigestGroup(ImmutableList.of(new TargetDigest("a", "url", "a", Status.UNKNOWN),
+                                                          new TargetDigest("b", "url", "b", Status.UNKNOWN)));
+        }
+        @Override public TargetDetail statusOf(TargetId target) {
+            fetches.countDown();
+            return new TargetDetail(target.id(), "url", target.id(), Status.GREEN, 0L);
+        }
+        @Override public boolean takeNoteOf(TargetId target, String note) {
+            return false;
+        }
+    }
+}
@@ -11,7 +11,7 @@ public final class StubCommunicationNetwork implements CommunicationNetwork {
     
     @Override
     public Contact makeContact(CodeBook codeBook) {
-        return new JsonRestRequester(codeBook.decoder(), codeBook.contentMunger(), channel);
+        return new JsonRestRequester(codeBook, channel);
     }
     
     public StubCommunicationNetwork respondingWith(String url, String response) {
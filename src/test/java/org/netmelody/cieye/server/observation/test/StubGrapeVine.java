@@ -1,7 +1,10 @@
 package org.netmelody.cieye.server.observation.test;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.Map;
 
+import org.netmelody.cieye.server.observation.protocol.ContentParser;
 import org.netmelody.cieye.server.observation.protocol.GrapeVine;
 
 import static com.google.common.collect.Maps.newHashMap;
@@ -23,6 +26,16 @@ public final class StubGrapeVine implements GrapeVine {
         return responses.get(url);
     }
 
+    @Override
+    public <T> T doGet(String url, ContentParser<T> parser) {
+        try {
+            return parser.parse(new StringReader(doGet(url)));
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public boolean privileged() {
         return false;
@@ -0,0 +1,91 @@
+package org.netmelody.cieye.server.observation.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.netmelody.cieye.core.domain.Percentage.percentageOf;
+
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.netmelody.cieye.core.domain.RunningBuild;
+import org.netmelody.cieye.core.domain.Sponsor;
+import org.netmelody.cieye.core.domain.Status;
+import org.netmelody.cieye.core.domain.TargetDetail;
+import org.netmelody.cieye.core.domain.TargetDigest;
+import org.netmelody.cieye.server.observation.TargetCadence;
+
+import com.google.common.collect.ImmutableList;
+
+public final class TargetCadenceTest {
+
+    private static final long MINUTE = 60000L;
+    private static final long HOUR = 60L * MINUTE;
+
+    @Test public void
+    pollsAFreshlyObservedTargetAtTheMinimumPeriod() {
+        final TargetCadence cadence = TargetCadence.firstObservation(target(Status.GREEN, 1L), 0L, 5000L, 300000L);
+        
+        assertThat(cadence.nextDueMillis(), is(5000L));
+    }
+
+    @Test public void
+    backsOffGraduallyWhileATargetIsUntouched() {
+        final TargetCadence start = TargetCadence.firstObservation(target(Status.GREEN, 1L), 0L, 5000L, 300000L);
+        
+        final TargetCadence afterTenMinutes = start.observed(target(Status.GREEN, 1L), 10L * MINUTE);
+        final TargetCadence afterTwoHours = afterTenMinutes.observed(target(Status.GREEN, 1L), 2L * HOUR);
+        
+        assertThat(afterTenMinutes.nextDueMillis(), is(10L * MINUTE + 50000L));
+        assertThat(afterTwoHours.nextDueMillis(), is(2L * HOUR + 300000L));
+    }
+
+    @Test public void
+    returnsToTheMinimumPeriodWhenATargetChanges() {
+        final TargetCadence idle = TargetCadence.firstObservation(target(Status.GREEN, 1L), 0L, 5000L, 300000L)
+                                                .observed(target(Status.GREEN, 1L), 2L * HOUR);
+        
+        final TargetCadence broken = idle.observed(target(Status.BROKEN, 2L), 2L * HOUR + MINUTE);
+        
+        assertThat(broken.nextDueMillis(), is(2L * HOUR + MINUTE + 5000L));
+    }
+
+    @Test public void
+    keepsPollingABuildingTargetAtTheMinimumPeriod() {
+        final TargetDetail building = new TargetDetail("id", "url", "name", Status.GREEN, 1L,
+                                                       ImmutableList.of(new RunningBuild(percentageOf(50), Status.GREEN)),
+                                                       new HashSet<Sponsor>());
+        final TargetCadence cadence = TargetCadence.firstObservation(building, 0L, 5000L, 300000L)
+                                                   .observed(building, 2L * HOUR);
+        
+        assertThat(cadence.nextDueMillis(), is(2L * HOUR + 5000L));
+    }
+
+    @Test public void
+    becomesDueEarlyWhenTheTargetDigestReportsADifferentOutcome() {
+        final TargetCadence cadence = TargetCadence.firstObservation(target(Status.GREEN, 1L), 0L, 5000L, 300000L)
+                                                   .observed(target(Status.GREEN, 1L), 2L * HOUR);
+        
+        assertThat(cadence.dueBy(2L * HOUR + 1L, digest(Status.GREEN)), is(false));
+        assertThat(cadence.dueBy(2L * HOUR + 1L, digest(Status.UNKNOWN)), is(false));
+        assertThat(cadence.dueBy(2L * HOUR + 1L, digest(Status.BROKEN)), is(true));
+    }
+
+    @Test public void
+    doesNotBackOffForDigestsThatCarryNoStatus() {
+        final TargetCadence cadence = TargetCadence.firstObservation(target(Status.GREEN, 1L), 0L, 5000L, 300000L)
+                                                   .observed(target(Status.GREEN, 1L), 2L * HOUR);
+        
+        assertThat(cadence.nextDueMillisFor(digest(Status.GREEN)), is(2L * HOUR + 300000L));
+        assertThat(cadence.nextDueMillisFor(digest(Status.UNKNOWN)), is(2L * HOUR + 5000L));
+        assertThat(cadence.dueBy(2L * HOUR + 5000L, digest(Status.UNKNOWN)), is(true));
+        assertThat(cadence.dueBy(2L * HOUR + 5000L, digest(Status.GREEN)), is(false));
+    }
+
+    private static TargetDetail target(Status status, long lastStartTime) {
+        return new TargetDetail("id", "url", "name", status, lastStartTime);
+    }
+
+    private static TargetDigest digest(Status status) {
+        return new TargetDigest("id", "url", "name", status);
+    }
+}
@@ -36,6 +36,7 @@ public final class LandscapeObservationResponderTest {
         final TargetGroupBriefing briefing = new TargetGroupBriefing(new TargetDetailGroup(), 0L);
         
         context.checking(new Expectations() {{
+            allowing(spyIntermediary).awaitFreshBriefingsOn(with(any(Iterable.class)));
             allowing(spyIntermediary).briefingOn(feature); will(returnValue(briefing));
         }});
         
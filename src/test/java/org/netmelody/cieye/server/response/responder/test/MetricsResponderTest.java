@@ -0,0 +1,41 @@
+package org.netmelody.cieye.server.response.responder.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.netmelody.cieye.core.logging.Gauge;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
+import org.netmelody.cieye.server.response.responder.MetricsResponder;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+public final class MetricsResponderTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final MetricsResponder responder = new MetricsResponder(registry);
+
+    @Test public void
+    providesJsonOfAllRegisteredMetrics() throws IOException {
+        registry.counter("http.client.requests", "host", "ci").increment();
+        registry.gauge(new Gauge() {
+            @Override public long reading() { return 7L; }
+        }, "polling.scheduler.queueDepth");
+        registry.histogram("http.server.latency", "route", "FileResponder").record(3L);
+
+        final JsonObject json = new JsonParser().parse(IOUtils.toString(responder.respond(null).inputStream())).getAsJsonObject();
+        final JsonObject latency = json.getAsJsonObject("histograms").getAsJsonObject("http.server.latency{route=FileResponder}");
+
+        assertThat(json.getAsJsonObject("counters").get("http.client.requests{host=ci}").getAsLong(), is(1L));
+        assertThat(json.getAsJsonObject("gauges").get("polling.scheduler.queueDepth").getAsLong(), is(7L));
+        assertThat(latency.get("count").getAsLong(), is(1L));
+        assertThat(latency.get("totalMillis").getAsLong(), is(3L));
+        assertThat(latency.getAsJsonObject("buckets").get("2").getAsLong(), is(0L));
+        assertThat(latency.getAsJsonObject("buckets").get("5").getAsLong(), is(1L));
+        assertThat(latency.getAsJsonObject("buckets").get("+Inf").getAsLong(), is(1L));
+    }
+}
@@ -0,0 +1,77 @@
+package org.netmelody.cieye.server.response.responder.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.netmelody.cieye.core.logging.Gauge;
+import org.netmelody.cieye.core.logging.MetricsRegistry;
+import org.netmelody.cieye.server.response.CiEyeResponse;
+import org.netmelody.cieye.server.response.responder.PrometheusMetricsResponder;
+
+public final class PrometheusMetricsResponderTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final PrometheusMetricsResponder responder = new PrometheusMetricsResponder(registry);
+
+    @Test public void
+    exposesCountersWithSanitisedNamesAndLabels() throws IOException {
+        registry.counter("http.client.requests", "host", "ci:8080", "method", "GET").add(3L);
+        registry.counter("http.client.requests", "host", "other", "method", "GET").increment();
+
+        final CiEyeResponse response = responder.respond(null);
+        final String text = IOUtils.toString(response.inputStream());
+
+        assertThat(response.contentType, is("text/plain; version=0.0.4; charset=utf-8"));
+        assertThat(text, is("# TYPE cieye_http_client_requests_total counter\n" +
+                            "cieye_http_client_requests_total{host=\"ci:8080\",method=\"GET\"} 3\n" +
+                            "cieye_http_client_requests_total{host=\"other\",method=\"GET\"} 1\n"));
+    }
+
+    @Test public void
+    exposesGaugesWithEscapedLabelValues() throws IOException {
+        registry.gauge(new Gauge() {
+            @Override public long reading() { return 42L; }
+        }, "polling.stalenessMillis", "type", "JENKINS", "feature", "say \"hi\"\\bye");
+
+        final String text = IOUtils.toString(responder.respond(null).inputStream());
+
+        assertThat(text, containsString("# TYPE cieye_polling_stalenessMillis gauge\n"));
+        assertThat(text, containsString("cieye_polling_stalenessMillis{feature=\"say \\\"hi\\\"\\\\bye\",type=\"JENKINS\"} 42\n"));
+    }
+
+    @Test public void
+    exposesHistogramsInSecondsWithCumulativeBuckets() throws IOException {
+        registry.histogram("polling.cycle", "feature", "f").record(3L);
+        registry.histogram("polling.cycle", "feature", "f").record(1500L);
+        registry.histogram("sponsors.scan").record(0L);
+
+        final String text = IOUtils.toString(responder.respond(null).inputStream());
+
+        assertThat(text, containsString("# TYPE cieye_polling_cycle_seconds histogram\n"));
+        assertThat(text, containsString("cieye_polling_cycle_seconds_bucket{feature=\"f\",le=\"0.002\"} 0\n"));
+        assertThat(text, containsString("cieye_polling_cycle_seconds_bucket{feature=\"f\",le=\"0.005\"} 1\n"));
+        assertThat(text, containsString("cieye_polling_cycle_seconds_bucket{feature=\"f\",le=\"2.500\"} 2\n"));
+        assertThat(text, containsString("cieye_polling_cycle_seconds_bucket{feature=\"f\",le=\"+Inf\"} 2\n"));
+        assertThat(text, containsString("cieye_polling_cycle_seconds_sum{feature=\"f\"} 1.503\n"));
+        assertThat(text, containsString("cieye_polling_cycle_seconds_count{feature=\"f\"} 2\n"));
+        assertThat(text, containsString("cieye_sponsors_scan_seconds_bucket{le=\"0.001\"} 1\n"));
+        assertThat(text, containsString("cieye_sponsors_scan_seconds_count 1\n"));
+    }
+
+    @Test public void
+    declaresEachFamilyOnlyOnce() throws IOException {
+        registry.histogram("http.server.latency", "route", "a").record(1L);
+        registry.histogram("http.server.latency", "route", "b").record(1L);
+
+        final String text = IOUtils.toString(responder.respond(null).inputStream());
+
+        assertThat(text.indexOf("# TYPE cieye_http_server_latency_seconds"), is(text.lastIndexOf("# TYPE cieye_http_server_latency_seconds")));
+        assertThat(text, not(containsString("cieye_http_server_latency_seconds_total")));
+    }
+}
@@ -0,0 +1,33 @@
+package org.netmelody.cieye.server.response.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+import org.netmelody.cieye.server.response.CiEyeResponse;
+import org.simpleframework.http.Status;
+
+public final class CiEyeResponseTest {
+
+    private final CiEyeResponse response = CiEyeResponse.withJson("{}").withEntityTag("\"abc\"");
+
+    @Test public void
+    matchesItsOwnEntityTag() {
+        assertThat(response.matches("\"abc\""), is(true));
+        assertThat(response.matches("\"xyz\", W/\"abc\""), is(true));
+    }
+
+    @Test public void
+    doesNotMatchOtherOrMissingEntityTags() {
+        assertThat(response.matches("\"xyz\""), is(false));
+        assertThat(response.matches(null), is(false));
+        assertThat(CiEyeResponse.withJson("{}").matches("\"abc\""), is(false));
+    }
+
+    @Test public void
+    keepsItsEntityTagAndStatusWhenGivenAnExpiry() {
+        final CiEyeResponse expiring = response.withStatus(Status.CREATED).expiringInMillis(1000L);
+        assertThat(expiring.entityTag, is("\"abc\""));
+        assertThat(expiring.status, is(Status.CREATED));
+    }
+}
@@ -0,0 +1,93 @@
+package org.netmelody.cieye.server.response.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.junit.Test;
+import org.netmelody.cieye.core.domain.CiServerType;
+import org.netmelody.cieye.core.domain.Feature;
+import org.netmelody.cieye.core.domain.Landscape;
+import org.netmelody.cieye.core.domain.TargetDetailGroup;
+import org.netmelody.cieye.server.CiSpyIntermediary;
+import org.netmelody.cieye.server.TargetGroupBriefing;
+import org.netmelody.cieye.server.response.LandscapeBroadcaster;
+import org.netmelody.cieye.server.response.LandscapeSnapshots;
+import org.netmelody.cieye.server.response.Prison;
+import org.simpleframework.http.Response;
+
+public final class LandscapeBroadcasterTest {
+
+    private final Mockery context = new Mockery();
+
+    private final CiSpyIntermediary spyIntermediary = context.mock(CiSpyIntermediary.class);
+    private final Response response = context.mock(Response.class);
+    private final Feature feature = new Feature("F", "E", new CiServerType("J"));
+
+    private final LandscapeBroadcaster broadcaster = new LandscapeBroadcaster(spyIntermediary, new Prison(), new LandscapeSnapshots());
+
+    @Test public void
+    pushesTheCurrentLandscapeToNewListeners() throws Exception {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        context.checking(new Expectations() {{
+            allowing(spyIntermediary).briefingOn(feature); will(returnValue(new TargetGroupBriefing(new TargetDetailGroup(), 0L, 1L)));
+            allowing(response).getOutputStream(); will(returnValue(stream));
+            ignoring(response);
+        }});
+
+        broadcaster.subscribe(new Landscape("L", feature), response);
+
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (stream.size() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20L);
+        }
+        assertThat(stream.toString("UTF-8"), containsString("data: {\"targets\":[]}\n\n"));
+    }
+
+    @Test public void
+    keepsPushingToListenersWhileAnotherListenerIsStalled() throws Exception {
+        final Response stalledResponse = context.mock(Response.class, "stalledResponse");
+        final CountDownLatch release = new CountDownLatch(1);
+        final OutputStream stalledStream = new OutputStream() {
+            @Override public void write(int b) { awaitRelease(); }
+            @Override public void write(byte[] b, int off, int len) { awaitRelease(); }
+            private void awaitRelease() {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        context.checking(new Expectations() {{
+            allowing(spyIntermediary).briefingOn(feature); will(returnValue(new TargetGroupBriefing(new TargetDetailGroup(), 0L, 1L)));
+            allowing(stalledResponse).getOutputStream(); will(returnValue(stalledStream));
+            ignoring(stalledResponse);
+            allowing(response).getOutputStream(); will(returnValue(stream));
+            ignoring(response);
+        }});
+
+        final Landscape landscape = new Landscape("L", feature);
+        try {
+            broadcaster.subscribe(landscape, stalledResponse);
+            Thread.sleep(100L);
+            broadcaster.subscribe(landscape, response);
+
+            final long deadline = System.currentTimeMillis() + 5000L;
+            while (stream.size() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20L);
+            }
+            assertThat(stream.toString("UTF-8"), containsString("data: {\"targets\":[]}\n\n"));
+        }
+        finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.netmelody.cieye.server.response.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.netmelody.cieye.core.domain.Landscape;
+import org.netmelody.cieye.core.domain.LandscapeObservation;
+import org.netmelody.cieye.core.domain.Sponsor;
+import org.netmelody.cieye.core.domain.Status;
+import org.netmelody.cieye.core.domain.TargetDetail;
+import org.netmelody.cieye.core.domain.TargetDetailGroup;
+import org.netmelody.cieye.server.TargetGroupBriefing;
+import org.netmelody.cieye.server.response.LandscapeSnapshot;
+import org.netmelody.cieye.server.response.JsonTranslator;
+import org.netmelody.cieye.server.response.LandscapeSnapshots;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public final class LandscapeSnapshotsTest {
+
+    private final LandscapeSnapshots snapshots = new LandscapeSnapshots();
+    private final Landscape landscape = new Landscape("L");
+    private final AtomicInteger observations = new AtomicInteger();
+    private final Supplier<LandscapeObservation> observation = new Supplier<LandscapeObservation>() {
+        @Override public LandscapeObservation get() {
+            observations.incrementAndGet();
+            return new LandscapeObservation();
+        }
+    };
+
+    @Test public void
+    reusesTheSnapshotWhileSourceVersionsAreUnchanged() {
+        final LandscapeSnapshot first = snapshots.snapshotOf(landscape, ImmutableList.of(1L, 0L), observation);
+        final LandscapeSnapshot second = snapshots.snapshotOf(landscape, ImmutableList.of(1L, 0L), observation);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(observations.get(), is(1));
+    }
+
+    @Test public void
+    issuesVersionsBeyondThoseOfAnEarlierServerInstance() throws InterruptedException {
+        final LandscapeSnapshot beforeRestart = snapshots.snapshotOf(landscape, ImmutableList.of(1L, 0L), observation);
+        Thread.sleep(5L);
+        final LandscapeSnapshot afterRestart = new LandscapeSnapshots().snapshotOf(landscape, ImmutableList.of(1L, 0L), observation);
+
+        assertThat(afterRestart.version(), is(greaterThan(beforeRestart.version())));
+    }
+
+    @Test public void
+    rebuildsTheSnapshotWhenASourceVersionChanges() {
+        final LandscapeSnapshot first = snapshots.snapshotOf(landscape, ImmutableList.of(1L, 0L), observation);
+        final LandscapeSnapshot second = snapshots.snapshotOf(landscape, ImmutableList.of(2L, 0L), observation);
+
+        assertThat(second.version(), is(not(first.version())));
+        assertThat(observations.get(), is(2));
+    }
+
+    @Test public void
+    neverCachesUnversionedBriefings() {
+        snapshots.snapshotOf(landscape, ImmutableList.of(TargetGroupBriefing.UNVERSIONED), observation);
+        snapshots.snapshotOf(landscape, ImmutableList.of(TargetGroupBriefing.UNVERSIONED), observation);
+
+        assertThat(observations.get(), is(2));
+    }
+
+    @Test public void
+    serialisesExactlyAsTheJsonTranslatorWould() throws Exception {
+        final LandscapeObservation landscapeObservation = new LandscapeObservation(TargetDetailGroup.of(ImmutableList.of(target("a", Status.GREEN))))
+                                                              .withDoh(ImmutableSet.of(new Sponsor("bob", "/bob.png")));
+        final LandscapeSnapshot snapshot = snapshots.snapshotOf(landscape, ImmutableList.of(1L), supplying(landscapeObservation));
+
+        assertThat(jsonOf(snapshot), is(new JsonTranslator().toJson(landscapeObservation)));
+    }
+
+    @Test public void
+    describesOnlyTheTargetsThatDifferSinceAPreviousVersion() {
+        final LandscapeSnapshot first = snapshots.snapshotOf(landscape, ImmutableList.of(1L),
+                supplying(new LandscapeObservation(TargetDetailGroup.of(ImmutableList.of(target("a", Status.GREEN), target("b", Status.GREEN))))));
+        final LandscapeSnapshot second = snapshots.snapshotOf(landscape, ImmutableList.of(2L),
+                supplying(new LandscapeObservation(TargetDetailGroup.of(ImmutableList.of(target("a", Status.BROKEN), target("c", Status.GREEN))))));
+
+        final String delta = new String(snapshots.deltaOf(landscape, second, first.version()), Charsets.UTF_8);
+
+        assertThat(delta, startsWith("{\"version\":" + second.version() + ",\"since\":" + first.version()));
+        assertThat(delta, containsString("\"added\":[{\"lastStartTime\":0,"));
+        assertThat(delta, containsString("\"status\":\"BROKEN\""));
+        assertThat(delta, containsString("\"removed\":[\"b\"]"));
+    }
+
+    @Test public void
+    cannotDescribeDifferencesFromAnUnknownVersion() {
+        final LandscapeSnapshot snapshot = snapshots.snapshotOf(landscape, ImmutableList.of(1L), observation);
+
+        assertThat(snapshots.deltaOf(landscape, snapshot, 12345L), is(nullValue()));
+    }
+
+    private static TargetDetail target(String id, Status status) {
+        return new TargetDetail(id, "url", id, status, 0L);
+    }
+
+    private static Supplier<LandscapeObservation> supplying(LandscapeObservation landscapeObservation) {
+        return Suppliers.ofInstance(landscapeObservation);
+    }
+
+    private static String jsonOf(LandscapeSnapshot snapshot) throws Exception {
+        final ByteArrayOutputStream json = new ByteArrayOutputStream();
+        snapshot.writeJsonTo(json);
+        return json.toString("UTF-8");
+    }
+}
@@ -8,6 +8,7 @@ import org.netmelody.cieye.core.domain.Status;
 import org.netmelody.cieye.core.domain.TargetDetail;
 import org.netmelody.cieye.core.observation.Contact;
 import org.netmelody.cieye.core.observation.KnownOffendersDirectory;
+import org.netmelody.cieye.spies.jenkins.BuildDetailStore;
 import org.netmelody.cieye.spies.jenkins.JenkinsCommunicator;
 import org.netmelody.cieye.spies.jenkins.JobLaboratory;
 import org.netmelody.cieye.spies.jenkins.jsondomain.Build;
@@ -72,6 +73,47 @@ public final class JobLaboratoryTest {
         assertThat(target.status(), Matchers.is(Status.BROKEN));
     }
     
+    @Test public void
+    usesSurveyedBuildDataForAGreenJobWithoutFurtherRequests() {
+        final BuildDetail lastBuild = new BuildDetail();
+        lastBuild.url = "buildUrl";
+        lastBuild.timestamp = 100L;
+        job.lastBuild = lastBuild;
+        
+        context.checking(new Expectations() {{
+            never(contact).makeJsonRestCall(with(any(String.class)), with(any(Class.class)));
+        }});
+        
+        TargetDetail target = jobLab.analyseJob(job);
+        
+        assertThat(target.status(), is(Status.GREEN));
+        assertThat(target.lastStartTime(), is(100L));
+    }
+    
+    @Test public void
+    sharesCompletedBuildDetailsBetweenJobsUsingTheSameStore() {
+        final BuildDetailStore store = new BuildDetailStore();
+        final JenkinsCommunicator communicator = new JenkinsCommunicator("ep", contact);
+        final JobLaboratory firstLab = new JobLaboratory(communicator, directory, store);
+        final JobLaboratory secondLab = new JobLaboratory(communicator, directory, store);
+        
+        final JobDetail jobDetail = new JobDetail();
+        jobDetail.lastBuild = new Build();
+        jobDetail.lastBuild.url = "buildUrl";
+        final BuildDetail buildDetail = new BuildDetail();
+        buildDetail.url = "buildUrl";
+        buildDetail.timestamp = 100L;
+        
+        context.checking(new Expectations() {{
+            allowing(contact).makeJsonRestCall("jobUrl/api/json", JobDetail.class); will(returnValue(jobDetail));
+            oneOf(contact).makeJsonRestCall("buildUrl/api/json", BuildDetail.class); will(returnValue(buildDetail));
+        }});
+        
+        assertThat(firstLab.analyseJob(job).lastStartTime(), is(100L));
+        assertThat(secondLab.analyseJob(job).lastStartTime(), is(100L));
+        context.assertIsSatisfied();
+    }
+    
     private Job defaultJob() {
         final Job job = new Job();
         job.name = "jobName";
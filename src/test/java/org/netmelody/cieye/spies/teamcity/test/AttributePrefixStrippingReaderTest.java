@@ -0,0 +1,42 @@
+package org.netmelody.cieye.spies.teamcity.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.Test;
+import org.netmelody.cieye.spies.teamcity.AttributePrefixStrippingReader;
+
+import com.google.common.io.CharStreams;
+
+public final class AttributePrefixStrippingReaderTest {
+
+    @Test public void
+    stripsAttributePrefixesFromPropertyNames() throws IOException {
+        assertThat(stripped("{\"@id\":\"bt1\",\"@href\":\"/x\"}"), is("{\"id\":\"bt1\",\"href\":\"/x\"}"));
+    }
+
+    @Test public void
+    leavesOtherAtSignsAlone() throws IOException {
+        assertThat(stripped("{\"email\":\"me@example.com\",\"x\":\"@@\"}"), is("{\"email\":\"me@example.com\",\"x\":\"@\"}"));
+    }
+
+    @Test public void
+    stripsPrefixesThatStraddleReads() throws IOException {
+        final Reader reader = new AttributePrefixStrippingReader(new StringReader("\"@id\""));
+        final char[] buffer = new char[1];
+        final StringBuilder result = new StringBuilder();
+        int read;
+        while ((read = reader.read(buffer, 0, 1)) >= 0) {
+            result.append(buffer, 0, read);
+        }
+        assertThat(result.toString(), is("\"id\""));
+    }
+
+    private static String stripped(String content) throws IOException {
+        return CharStreams.toString(new AttributePrefixStrippingReader(new StringReader(content)));
+    }
+}
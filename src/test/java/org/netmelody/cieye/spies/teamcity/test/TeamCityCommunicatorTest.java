@@ -1,21 +1,28 @@
 package org.netmelody.cieye.spies.teamcity.test;
 
 import java.io.IOException;
+import java.net.URLEncoder;
 import java.util.List;
 
 import org.apache.commons.io.IOUtils;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
+import org.netmelody.cieye.core.observation.AsyncContact;
+import org.netmelody.cieye.core.observation.Contact;
 import org.netmelody.cieye.server.observation.protocol.JsonRestRequester;
 import org.netmelody.cieye.server.observation.test.StubGrapeVine;
 import org.netmelody.cieye.spies.teamcity.TeamCityCommunicator;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildDetail;
 import org.netmelody.cieye.spies.teamcity.jsondomain.Change;
+import org.netmelody.cieye.spies.teamcity.jsondomain.ChangeDetail;
 import org.netmelody.cieye.spies.teamcity.jsondomain.ChangesHref;
 
 import com.google.common.base.Functions;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -74,6 +81,69 @@ public final class TeamCityCommunicatorTest {
         assertThat(changes.get(1).id, is("62854"));
     }
 
+    @Test public void
+    requestsDetailsOfAllBuildChangesAtOnce() throws Exception {
+        final BuildDetail buildDetail = buildDetail(2);
+        channel.respondingWith(surveyUrlFor(buildDetail),
+                "{\"count\":2,\"change\":[{\"id\":62855,\"href\":\"/app/rest/changes/id:62855\",\"username\":\"fred\",\"comment\":\"fix\"}," +
+                                           "{\"id\":62854,\"href\":\"/app/rest/changes/id:62854\",\"username\":\"bob\",\"comment\":\"break\"}]}");
+        
+        final List<ChangeDetail> changes = communicator.detailedChangesOf(buildDetail);
+        assertThat(changes, is(Matchers.<ChangeDetail>iterableWithSize(2)));
+        assertThat(changes.get(0).username, is("fred"));
+        assertThat(changes.get(1).comment, is("break"));
+    }
+
+    @Test public void
+    remembersChangeDetailsBetweenRequests() throws Exception {
+        final BuildDetail buildDetail = buildDetail(1);
+        channel.respondingWith(surveyUrlFor(buildDetail), "{\"count\":1,\"change\":{\"id\":62855,\"href\":\"/app/rest/changes/id:62855\"}}");
+        channel.respondingWith("http://foo/app/rest/changes/id:62855", "{\"id\":62855,\"href\":\"/app/rest/changes/id:62855\",\"comment\":\"fix\"}");
+        communicator.detailedChangesOf(buildDetail);
+        
+        channel.respondingWith("http://foo/app/rest/changes/id:62855", "{\"id\":62855,\"href\":\"/app/rest/changes/id:62855\",\"comment\":\"rewritten\"}");
+        final List<ChangeDetail> changes = communicator.detailedChangesOf(buildDetail);
+        
+        assertThat(changes.get(0).comment, is("fix"));
+    }
+
+    @Test public void
+    remembersTheChangesOfCompletedBuildsBetweenRequests() throws Exception {
+        final BuildDetail buildDetail = buildDetail(1);
+        buildDetail.href = "/app/rest/builds/id:999";
+        channel.respondingWith(surveyUrlFor(buildDetail), "{\"count\":1,\"change\":{\"id\":62855,\"href\":\"/app/rest/changes/id:62855\",\"comment\":\"fix\"}}");
+        communicator.detailedChangesOfCompleted(buildDetail);
+        
+        channel.respondingWith(surveyUrlFor(buildDetail), "{\"count\":0}");
+        final List<ChangeDetail> changes = communicator.detailedChangesOfCompleted(buildDetail);
+        
+        assertThat(changes, is(Matchers.<ChangeDetail>iterableWithSize(1)));
+        assertThat(changes.get(0).comment, is("fix"));
+    }
+
+    @Test public void
+    fetchesUnsurveyedChangeDetailsThroughAnAsynchronousContact() throws Exception {
+        final TeamCityCommunicator asyncCommunicator =
+                new TeamCityCommunicator(new ImmediateAsyncContact(new JsonRestRequester(new Gson(), Functions.<String>identity(), channel)),
+                                         "http://foo");
+        final BuildDetail buildDetail = buildDetail(2);
+        channel.respondingWith(surveyUrlFor(buildDetail),
+                "{\"count\":2,\"change\":[{\"id\":62855,\"href\":\"/app/rest/changes/id:62855\"}," +
+                                           "{\"id\":62854,\"href\":\"/app/rest/changes/id:62854\"}]}");
+        channel.respondingWith("http://foo/app/rest/changes/id:62855", "{\"id\":62855,\"href\":\"/app/rest/changes/id:62855\",\"comment\":\"fix\"}");
+        channel.respondingWith("http://foo/app/rest/changes/id:62854", "{\"id\":62854,\"href\":\"/app/rest/changes/id:62854\",\"comment\":\"break\"}");
+        
+        final List<ChangeDetail> changes = asyncCommunicator.detailedChangesOf(buildDetail);
+        
+        assertThat(changes, is(Matchers.<ChangeDetail>iterableWithSize(2)));
+        assertThat(changes.get(0).comment, is("fix"));
+        assertThat(changes.get(1).comment, is("break"));
+    }
+
+    private String surveyUrlFor(BuildDetail buildDetail) throws Exception {
+        return "http://foo" + buildDetail.changes.href + "?fields=" + URLEncoder.encode("change(id,version,href,username,comment)", "UTF-8");
+    }
+
     private BuildDetail buildDetail(int size) {
         final BuildDetail buildDetail = new BuildDetail();
         buildDetail.changes = new ChangesHref();
@@ -90,4 +160,16 @@ public final class TeamCityCommunicatorTest {
             throw new IllegalArgumentException(e);
         }
     }
+
+    private static final class ImmediateAsyncContact implements AsyncContact {
+        private final Contact contact;
+        public ImmediateAsyncContact(Contact contact) { this.contact = contact; }
+        @Override public <T> ListenableFuture<T> makeAsyncJsonRestCall(String url, Class<T> type) { return Futures.immediateFuture(contact.makeJsonRestCall(url, type)); }
+        @Override public ListenableFuture<JsonElement> makeAsyncJsonRestCall(String url) { return Futures.immediateFuture(contact.makeJsonRestCall(url)); }
+        @Override public <T> T makeJsonRestCall(String url, Class<T> type) { return contact.makeJsonRestCall(url, type); }
+        @Override public JsonElement makeJsonRestCall(String url) { return contact.makeJsonRestCall(url); }
+        @Override public boolean privileged() { return contact.privileged(); }
+        @Override public void doPost(String url) { contact.doPost(url); }
+        @Override public void doPut(String url, String content) { contact.doPut(url, content); }
+    }
 }
\ No newline at end of file
@@ -4,19 +4,28 @@ import static com.google.common.collect.Lists.newArrayList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
+import java.util.HashSet;
+
 import org.hamcrest.Matchers;
 import org.jmock.Expectations;
 import org.jmock.Mockery;
 import org.junit.Test;
 import org.netmelody.cieye.core.domain.CiServerType;
 import org.netmelody.cieye.core.domain.Feature;
+import org.netmelody.cieye.core.domain.Sponsor;
+import org.netmelody.cieye.core.domain.Status;
+import org.netmelody.cieye.core.domain.TargetDetail;
 import org.netmelody.cieye.core.domain.TargetDigest;
 import org.netmelody.cieye.core.domain.TargetDigestGroup;
 import org.netmelody.cieye.core.observation.Contact;
 import org.netmelody.cieye.core.observation.KnownOffendersDirectory;
 import org.netmelody.cieye.spies.teamcity.TeamCitySpy;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildDetail;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildDetails;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildType;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeDetail;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeStatus;
+import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypeStatuses;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildTypes;
 import org.netmelody.cieye.spies.teamcity.jsondomain.Builds;
 import org.netmelody.cieye.spies.teamcity.jsondomain.BuildsHref;
@@ -109,6 +118,99 @@ public final class TeamCitySpyTest {
         context.assertIsSatisfied();
     }
 
+    @Test public void
+    surveysAllBuildTypesOfAProjectWithOneRequestPerPoll() {
+        context.checking(new Expectations() {{
+            allowing(contact).privileged(); will(returnValue(false));
+        }});
+
+        final TeamCitySpy spy = new TeamCitySpy("myEndpoint", detective, contact);
+        
+        context.checking(new Expectations() {{
+            allowing(contact).makeJsonRestCall(with(any(String.class)), with(BuildTypes.class));
+                will(returnValue(buildTypesInProject("myProject", "bt1", "bt2")));
+            oneOf(contact).makeJsonRestCall(with(Matchers.containsString("fields=")), with(BuildTypeStatuses.class));
+                will(returnValue(statusesOf(completedBuild("SUCCESS"), "bt1", "bt2")));
+            oneOf(contact).makeJsonRestCall(with(Matchers.containsString("running%3Atrue")), with(BuildDetails.class));
+                will(returnValue(new BuildDetails()));
+            allowing(detective).search(with(any(String.class))); will(returnValue(new HashSet<Sponsor>()));
+            
+            never(contact).makeJsonRestCall(with(any(String.class)), with(BuildTypeDetail.class));
+        }});
+        
+        final TargetDigestGroup digest = spy.targetsConstituting(new Feature("myProject", "myEndpoint", new CiServerType("TEAMCITY")));
+        final TargetDetail first = spy.statusOf(digest.iterator().next().id());
+        
+        assertThat(first.status(), is(Status.GREEN));
+        for (TargetDigest target : digest) {
+            spy.statusOf(target.id());
+        }
+        context.assertIsSatisfied();
+    }
+
+    @Test public void
+    fallsBackToPerBuildTypeRequestsWhenTheServerCannotSurveyAProject() {
+        context.checking(new Expectations() {{
+            allowing(contact).privileged(); will(returnValue(false));
+        }});
+
+        final TeamCitySpy spy = new TeamCitySpy("myEndpoint", detective, contact);
+        
+        context.checking(new Expectations() {{
+            allowing(contact).makeJsonRestCall(with(any(String.class)), with(BuildTypes.class));
+                will(returnValue(buildTypesInProject("myProject", "bt1")));
+            oneOf(contact).makeJsonRestCall(with(any(String.class)), with(BuildTypeStatuses.class));
+                will(returnValue(statusesOf(null, "bt1")));
+            allowing(contact).makeJsonRestCall(with(any(String.class)), with(BuildTypeDetail.class));
+                will(returnValue(buildTypeDetail()));
+            allowing(contact).makeJsonRestCall(with(any(String.class)), with(Builds.class));
+                will(returnValue(new Builds()));
+        }});
+        
+        final Feature feature = new Feature("myProject", "myEndpoint", new CiServerType("TEAMCITY"));
+        spy.statusOf(spy.targetsConstituting(feature).iterator().next().id());
+        spy.statusOf(spy.targetsConstituting(feature).iterator().next().id());
+        context.assertIsSatisfied();
+    }
+
+    private BuildTypes buildTypesInProject(String projectName, String... ids) {
+        final BuildTypes buildTypes = new BuildTypes();
+        buildTypes.buildType = newArrayList();
+        
+        for (String id : ids) {
+            final BuildType buildType = new BuildType();
+            buildType.id = id;
+            buildType.name = id;
+            buildType.href = "/" + id;
+            buildType.projectId = "p1";
+            buildType.projectName = projectName;
+            buildTypes.buildType.add(buildType);
+        }
+        return buildTypes;
+    }
+
+    private BuildTypeStatuses statusesOf(BuildDetail lastCompletedBuild, String... ids) {
+        final BuildTypeStatuses statuses = new BuildTypeStatuses();
+        statuses.buildType = newArrayList();
+        
+        for (String id : ids) {
+            final BuildTypeStatus status = new BuildTypeStatus();
+            status.id = id;
+            if (null != lastCompletedBuild) {
+                status.builds = new BuildDetails();
+                status.builds.build = newArrayList(lastCompletedBuild);
+            }
+            statuses.buildType.add(status);
+        }
+        return statuses;
+    }
+
+    private BuildDetail completedBuild(String status) {
+        final BuildDetail build = new BuildDetail();
+        build.status = status;
+        return build;
+    }
+
     private BuildTypeDetail buildTypeDetail() {
         final BuildTypeDetail detail = new BuildTypeDetail();
         detail.builds = new BuildsHref();
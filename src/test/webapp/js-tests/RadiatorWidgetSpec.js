@@ -0,0 +1,62 @@
+"use strict";
+describe("RadiatorWidget", function() {
+    var widget = undefined;
+
+    function target(id, name, status) {
+        return { "id": id, "name": name, "status": status, "builds": [], "sponsors": [], "lastStartTime": 0 };
+    }
+
+    function displayedTargets() {
+        return widget.getContent().children("div.target").map(function() {
+            return $(this).children("span").first().text() + ":" + $(this).attr("class").replace("target", "").replace(/\s+/g, "");
+        }).get();
+    }
+
+    beforeEach(function() {
+        spyOn($, "getJSON");
+        spyOn($.fn, "popupMenu").andCallFake(function() { return this; });
+        // hiding a detached element leaves the simulated DOM unable to report inline widths to later specs
+        spyOn($.fn, "hide").andCallFake(function() { return this; });
+        spyOn($.fn, "show").andCallFake(function() { return this; });
+
+        widget = ORG.NETMELODY.CIEYE.newRadiatorWidget();
+        widget.updateFrom({ "targets": [ target("a", "Alpha", "GREEN"), target("b", "Bravo", "GREEN") ] });
+    });
+
+    afterEach(function() {
+        widget.getContent().remove();
+        widget = undefined;
+    });
+
+    it("displays the targets of a full update", function() {
+        expect(displayedTargets()).toEqual([ "Alpha:GREEN", "Bravo:GREEN" ]);
+    });
+
+    describe("when a delta has been applied", function() {
+        beforeEach(function() {
+            widget.updateFrom({ "version": 2, "since": 1,
+                                "added": [ target("c", "Charlie", "GREEN") ],
+                                "changed": [ target("b", "Bravo", "BROKEN") ],
+                                "removed": [ "a" ] });
+        });
+
+        it("patches the changed targets onto the previous landscape", function() {
+            expect(displayedTargets()).toEqual([ "Bravo:BROKEN", "Charlie:GREEN" ]);
+        });
+
+        it("keeps unchanged targets when a later delta touches others", function() {
+            widget.updateFrom({ "version": 3, "since": 2, "added": [], "changed": [ target("b", "Bravo", "GREEN") ], "removed": [] });
+
+            expect(displayedTargets()).toEqual([ "Bravo:GREEN", "Charlie:GREEN" ]);
+        });
+    });
+
+    describe("when a full update follows a delta", function() {
+        it("replaces the landscape rather than patching it", function() {
+            widget.updateFrom({ "version": 2, "since": 1, "added": [], "changed": [], "removed": [ "b" ] });
+            widget.updateFrom({ "targets": [ target("d", "Delta", "BROKEN") ] });
+
+            expect(displayedTargets()).toEqual([ "Delta:BROKEN" ]);
+        });
+    });
+});